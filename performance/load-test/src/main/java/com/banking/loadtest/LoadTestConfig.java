@@ -0,0 +1,87 @@
+package com.banking.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code --key=value} arguments. Every key has a default, so a bare
+ * run from the repository root after {@code mvn install} works.
+ */
+record LoadTestConfig(
+        Path transactionJar,
+        Path notificationJar,
+        Path outputDir,
+        List<Integer> rates,
+        Duration warmup,
+        Duration stageDuration,
+        Duration drainTimeout,
+        TrafficMix mix,
+        int accounts,
+        Duration accountLatency,
+        Duration accountLatencyJitter,
+        int partitions,
+        String serviceHeap,
+        List<String> transactionArgs,
+        List<String> notificationArgs,
+        boolean stopOnSaturation) {
+
+    static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                Path.of(take(values, "transaction-jar", "services/transaction-service/target/transaction-service-1.0.0-exec.jar")),
+                Path.of(take(values, "notification-jar", "services/notification-service/target/notification-service-1.0.0.jar")),
+                Path.of(take(values, "output-dir", "performance/load-test/target/results")),
+                parseRates(take(values, "rates", "10,20,40,80")),
+                Duration.ofSeconds(Long.parseLong(take(values, "warmup-s", "30"))),
+                Duration.ofSeconds(Long.parseLong(take(values, "stage-duration-s", "60"))),
+                Duration.ofSeconds(Long.parseLong(take(values, "drain-timeout-s", "120"))),
+                TrafficMix.parse(take(values, "mix", "40:30:30")),
+                Integer.parseInt(take(values, "accounts", "1000")),
+                Duration.ofMillis(Long.parseLong(take(values, "account-latency-ms", "5"))),
+                Duration.ofMillis(Long.parseLong(take(values, "account-latency-jitter-ms", "0"))),
+                Integer.parseInt(take(values, "partitions", "12")),
+                take(values, "service-heap", "512m"),
+                splitArgs(take(values, "transaction-args", "")),
+                splitArgs(take(values, "notification-args", "")),
+                Boolean.parseBoolean(take(values, "stop-on-saturation", "true")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown settings: " + values.keySet());
+        }
+        return config;
+    }
+
+    private static String take(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static List<Integer> parseRates(String rates) {
+        List<Integer> parsed = new ArrayList<>();
+        for (String rate : rates.split(",")) {
+            int value = Integer.parseInt(rate.trim());
+            if (value <= 0) {
+                throw new IllegalArgumentException("Rates must be positive: " + rates);
+            }
+            parsed.add(value);
+        }
+        return parsed;
+    }
+
+    private static List<String> splitArgs(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test on one box. Starts an embedded Kafka broker and a stub account-service in
+ * this JVM, runs transaction-service and notification-service from their jars against them (each
+ * on its own in-memory H2), then offers open-loop traffic at each configured rate in turn and
+ * reports throughput and latency from POST to the completion notification being SENT. Stepping
+ * stops at the first stage that can't keep up, which is the saturation point.
+ *
+ * <pre>
+ * java -jar performance/load-test/target/load-test-1.0.0.jar --rates=10,20,40,80 --account-latency-ms=5
+ * </pre>
+ * See {@link LoadTestConfig} for all settings.
+ */
+@Slf4j
+public final class LoadTestHarness {
+
+    private static final String[] TOPICS = {"transaction-created", "transaction-completed"};
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final LoadTestConfig config;
+
+    private LoadTestHarness(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestHarness(LoadTestConfig.fromArgs(args)).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(config.outputDir());
+
+        EmbeddedKafkaBroker kafka = new EmbeddedKafkaKraftBroker(1, config.partitions(), TOPICS);
+        kafka.afterPropertiesSet();
+        log.info("Embedded Kafka at {}", kafka.getBrokersAsString());
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(4);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (StubAccountService accountService = StubAccountService.start(
+                     config.accountLatency(), config.accountLatencyJitter());
+             ServiceProcess notificationService = ServiceProcess.start("notification-service",
+                     config.notificationJar(), freePort(), config.serviceHeap(), config.outputDir(),
+                     withKafka(kafka, config.notificationArgs()));
+             ServiceProcess transactionService = ServiceProcess.start("transaction-service",
+                     config.transactionJar(), freePort(), config.serviceHeap(), config.outputDir(),
+                     transactionServiceArgs(kafka, accountService))) {
+
+            notificationService.awaitStarted(http, STARTUP_TIMEOUT);
+            transactionService.awaitStarted(http, STARTUP_TIMEOUT);
+
+            try (NotificationTracker tracker = new NotificationTracker(http, objectMapper, notificationService.baseUrl())) {
+                OpenLoopDriver driver = new OpenLoopDriver(http, objectMapper, transactionService.baseUrl(),
+                        config.mix(), config.accounts(), tracker);
+
+                if (!config.warmup().isZero()) {
+                    StageRecorder warmup = driver.run("warmup", config.rates().get(0), config.warmup());
+                    tracker.awaitDrained(warmup, config.drainTimeout());
+                    log.info("Warmup done, {} requests still outstanding were dropped", warmup.outstanding());
+                }
+
+                List<StageRecorder> stages = new ArrayList<>();
+                for (int rate : config.rates()) {
+                    long callsBefore = accountService.calls();
+                    long mutationsBefore = accountService.mutations();
+
+                    StageRecorder stage = driver.run("rate-" + rate, rate, config.stageDuration());
+                    tracker.awaitDrained(stage, config.drainTimeout());
+                    stage.accountService(accountService.calls() - callsBefore, accountService.mutations() - mutationsBefore);
+
+                    stage.print(System.out);
+                    stage.writeHistograms(config.outputDir());
+                    stages.add(stage);
+                    if (stage.isSaturated() && config.stopOnSaturation()) {
+                        break;
+                    }
+                }
+                printSummary(stages);
+            }
+        } finally {
+            httpExecutor.shutdownNow();
+            kafka.destroy();
+        }
+    }
+
+    private List<String> transactionServiceArgs(EmbeddedKafkaBroker kafka, StubAccountService accountService) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.cloud.discovery.client.simple.instances.account-service[0].uri=http://localhost:"
+                + accountService.port());
+        args.add("--transaction.events.topics.partitions=" + config.partitions());
+        args.addAll(config.transactionArgs());
+        return withKafka(kafka, args);
+    }
+
+    private static List<String> withKafka(EmbeddedKafkaBroker kafka, List<String> args) {
+        List<String> all = new ArrayList<>();
+        all.add("--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString());
+        all.addAll(args);
+        return all;
+    }
+
+    private void printSummary(List<StageRecorder> stages) {
+        StageRecorder lastSustained = null;
+        for (StageRecorder stage : stages) {
+            if (stage.isSaturated()) {
+                break;
+            }
+            lastSustained = stage;
+        }
+        System.out.printf("%n=== Summary (mix %s, %d accounts, account-service %d ms) ===%n",
+                config.mix(), config.accounts(), config.accountLatency().toMillis());
+        System.out.println(lastSustained != null
+                ? "Highest sustained stage: " + lastSustained.name()
+                : "No stage was sustained; lower the first rate");
+        System.out.println("Histograms and service logs in " + config.outputDir().toAbsolutePath());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
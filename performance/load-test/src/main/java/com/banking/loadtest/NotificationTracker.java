@@ -0,0 +1,131 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds out when each accepted transaction's completion notification was sent. A background
+ * thread looks up outstanding transactions in bulk through notification-service's search
+ * endpoint and records the end-to-end latency against the notification's {@code sentAt}.
+ */
+@Slf4j
+final class NotificationTracker implements AutoCloseable {
+
+    private static final int LOOKUP_SIZE = 1000;
+    private static final int MAX_LOOKUPS_PER_CYCLE = 20;
+    private static final long POLL_INTERVAL_MS = 250;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI searchUri;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Thread poller;
+
+    NotificationTracker(HttpClient http, ObjectMapper objectMapper, String notificationServiceUrl) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.searchUri = URI.create(notificationServiceUrl + "/notifications/search");
+        this.poller = new Thread(this::poll, "notification-tracker");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    void track(String transactionId, StageRecorder stage, long intendedEpochMicros) {
+        pending.put(transactionId, new Pending(stage, intendedEpochMicros));
+    }
+
+    /**
+     * Waits until every request of the stage has an outcome, or the timeout passes; whatever is
+     * still outstanding then is counted as timed out and no longer tracked.
+     */
+    void awaitDrained(StageRecorder stage, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (stage.outstanding() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        pending.values().removeIf(entry -> entry.stage() == stage);
+        stage.timedOut(stage.outstanding());
+    }
+
+    private void poll() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<String> ids = new ArrayList<>(pending.keySet());
+                int lookups = Math.min(MAX_LOOKUPS_PER_CYCLE, (ids.size() + LOOKUP_SIZE - 1) / LOOKUP_SIZE);
+                for (int i = 0; i < lookups; i++) {
+                    lookup(ids.subList(i * LOOKUP_SIZE, Math.min(ids.size(), (i + 1) * LOOKUP_SIZE)));
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Notification lookup failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void lookup(List<String> transactionIds) throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("transactionIds", transactionIds));
+        HttpRequest request = HttpRequest.newBuilder(searchUri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Notification search returned " + response.statusCode());
+        }
+
+        // Earliest completion notification per transaction; a transfer's recipient is notified after the sender
+        Map<String, Long> sentAt = new HashMap<>();
+        Map<String, Boolean> failed = new HashMap<>();
+        for (JsonNode notification : objectMapper.readTree(response.body())) {
+            if (!"TRANSACTION_COMPLETED".equals(notification.path("type").asText())) {
+                continue;
+            }
+            String transactionId = notification.path("transactionId").asText();
+            String status = notification.path("status").asText();
+            if ("SENT".equals(status)) {
+                long sent = WallClock.epochMicros(LocalDateTime.parse(notification.path("sentAt").asText()));
+                sentAt.merge(transactionId, sent, Math::min);
+            } else if ("FAILED".equals(status)) {
+                failed.put(transactionId, true);
+            }
+        }
+
+        sentAt.forEach((transactionId, sent) -> {
+            Pending entry = pending.remove(transactionId);
+            if (entry != null) {
+                entry.stage().recordCompleted(entry.intendedEpochMicros(), sent);
+            }
+        });
+        failed.keySet().forEach(transactionId -> {
+            Pending entry = pending.remove(transactionId);
+            if (entry != null) {
+                entry.stage().recordNotificationFailure();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        poller.interrupt();
+    }
+
+    private record Pending(StageRecorder stage, long intendedEpochMicros) {
+    }
+}
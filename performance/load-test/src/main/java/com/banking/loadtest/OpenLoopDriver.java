@@ -0,0 +1,118 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fires {@code POST /transactions} on a fixed schedule regardless of how quickly responses come
+ * back (open loop), so a slow system keeps receiving the offered load instead of throttling the
+ * generator. Each request's latency is measured from the time it was scheduled to go out.
+ */
+@Slf4j
+final class OpenLoopDriver {
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI transactionsUri;
+    private final TrafficMix mix;
+    private final int accounts;
+    private final NotificationTracker tracker;
+
+    OpenLoopDriver(HttpClient http, ObjectMapper objectMapper, String transactionServiceUrl,
+                   TrafficMix mix, int accounts, NotificationTracker tracker) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.transactionsUri = URI.create(transactionServiceUrl + "/transactions");
+        this.mix = mix;
+        this.accounts = accounts;
+        this.tracker = tracker;
+    }
+
+    StageRecorder run(String name, int rate, Duration duration) {
+        long periodNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        StageRecorder stage = new StageRecorder(name, rate, WallClock.epochMicros(start));
+        log.info("Stage {}: {} req/s for {}s", name, rate, duration.toSeconds());
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(stage, intended);
+        }
+        stage.sendingFinished((System.nanoTime() - start) / 1000);
+        return stage;
+    }
+
+    private void send(StageRecorder stage, long intendedNanos) {
+        HttpRequest request = HttpRequest.newBuilder(transactionsUri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(nextRequestBody()))
+                .build();
+        stage.recordSent();
+
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            long latencyMicros = (System.nanoTime() - intendedNanos) / 1000;
+            if (error != null) {
+                log.debug("Request failed", error);
+                stage.recordError();
+                return;
+            }
+            int status = response.statusCode();
+            if (status == 503) {
+                stage.recordRejected(latencyMicros);
+                return;
+            }
+            if (status / 100 != 2) {
+                log.debug("Request returned {}: {}", status, new String(response.body()));
+                stage.recordError();
+                return;
+            }
+            try {
+                String transactionId = objectMapper.readTree(response.body()).path("transactionId").asText();
+                stage.recordAccepted(latencyMicros);
+                tracker.track(transactionId, stage, WallClock.epochMicros(intendedNanos));
+            } catch (Exception e) {
+                log.debug("Unreadable response", e);
+                stage.recordError();
+            }
+        });
+    }
+
+    private String nextRequestBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String type = mix.pick();
+        int from = random.nextInt(accounts);
+        String toAccount = "null";
+        if ("TRANSFER".equals(type)) {
+            int to = (from + 1 + random.nextInt(Math.max(1, accounts - 1))) % accounts;
+            toAccount = "\"" + accountNumber(to) + "\"";
+        }
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(100, 50_000)).movePointLeft(2)
+                .setScale(2, RoundingMode.UNNECESSARY);
+        return String.format(
+                "{\"type\":\"%s\",\"fromAccount\":\"%s\",\"toAccount\":%s,\"amount\":%s,\"currency\":\"USD\",\"description\":\"load test\"}",
+                type, accountNumber(from), toAccount, amount.toPlainString());
+    }
+
+    private static String accountNumber(int index) {
+        return String.format("LT%08d", index);
+    }
+}
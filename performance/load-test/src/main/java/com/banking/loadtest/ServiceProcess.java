@@ -0,0 +1,111 @@
+package com.banking.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service started from its executable jar in a child JVM, with output going to a log file. The
+ * services run as separate processes, as they do in production, so their heaps, GC and thread
+ * pools don't interfere with each other or with the load generator.
+ */
+@Slf4j
+final class ServiceProcess implements AutoCloseable {
+
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final Path logFile;
+
+    private ServiceProcess(String name, int port, Process process, Path logFile) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    static ServiceProcess start(String name, Path jar, int port, String heap, Path logDir, List<String> args)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(name + " jar not found at " + jar.toAbsolutePath()
+                    + "; build it with mvn install first");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xms" + heap);
+        command.add("-Xmx" + heap);
+        // Notification timestamps are compared against the harness clock
+        command.add("-Duser.timezone=UTC");
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--eureka.client.enabled=false");
+        command.add("--spring.jpa.show-sql=false");
+        // The services' own yml turns their packages up to DEBUG, so name them explicitly
+        command.add("--logging.level.com.banking.transactionservice=WARN");
+        command.add("--logging.level.com.banking.notificationservice=WARN");
+        command.add("--logging.level.org.hibernate.SQL=WARN");
+        command.add("--logging.level.org.apache.kafka=WARN");
+        command.addAll(args);
+
+        Path logFile = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        log.info("Started {} (pid {}) on port {}, logging to {}", name, process.pid(), port, logFile);
+        return new ServiceProcess(name, port, process, logFile);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * Waits until the service answers its health endpoint. Any HTTP answer counts: health may be
+     * DOWN for reasons that don't matter here (e.g. the unreachable mail server).
+     */
+    void awaitStarted(HttpClient http, Duration timeout) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                http.send(probe, HttpResponse.BodyHandlers.discarding());
+                log.info("{} is up", name);
+                return;
+            } catch (ConnectException e) {
+                // Not listening yet
+            } catch (IOException e) {
+                log.debug("{} health probe failed", name, e);
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start within " + timeout.toSeconds() + "s, see " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            log.warn("{} did not stop within 20s, killing it", name);
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.banking.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and latency histograms for one traffic stage. Latencies are recorded in microseconds
+ * from each request's intended send time, so a stalled system shows up as latency rather than as
+ * a quietly lower request rate.
+ */
+final class StageRecorder {
+
+    // A stage counts as sustainable while it completes at least this share of the target rate
+    private static final double SUSTAINED_RATIO = 0.95;
+
+    private final String name;
+    private final int targetRate;
+    private final long startEpochMicros;
+    private final Histogram postLatency = new ConcurrentHistogram(3);
+    private final Histogram endToEndLatency = new ConcurrentHistogram(3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong notificationFailures = new AtomicLong();
+    private final AtomicLong lastCompletionEpochMicros = new AtomicLong();
+    private volatile long sendingMicros;
+    private volatile long timedOut;
+    private volatile long accountServiceCalls;
+    private volatile long accountServiceMutations;
+
+    StageRecorder(String name, int targetRate, long startEpochMicros) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.startEpochMicros = startEpochMicros;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordSent() {
+        sent.incrementAndGet();
+    }
+
+    void recordAccepted(long latencyMicros) {
+        accepted.incrementAndGet();
+        postLatency.recordValue(latencyMicros);
+    }
+
+    void recordRejected(long latencyMicros) {
+        rejected.incrementAndGet();
+        postLatency.recordValue(latencyMicros);
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    void recordCompleted(long intendedEpochMicros, long sentEpochMicros) {
+        completed.incrementAndGet();
+        endToEndLatency.recordValue(Math.max(0, sentEpochMicros - intendedEpochMicros));
+        lastCompletionEpochMicros.accumulateAndGet(sentEpochMicros, Math::max);
+    }
+
+    void recordNotificationFailure() {
+        notificationFailures.incrementAndGet();
+    }
+
+    void sendingFinished(long sendingMicros) {
+        this.sendingMicros = sendingMicros;
+    }
+
+    void timedOut(long count) {
+        this.timedOut = count;
+    }
+
+    void accountService(long calls, long mutations) {
+        this.accountServiceCalls = calls;
+        this.accountServiceMutations = mutations;
+    }
+
+    // Requests whose outcome is still unknown: awaiting a response or a notification
+    long outstanding() {
+        return sent.get() - rejected.get() - errors.get() - completed.get() - notificationFailures.get();
+    }
+
+    double completionRate() {
+        long window = lastCompletionEpochMicros.get() - startEpochMicros;
+        return window > 0 ? completed.get() * 1_000_000.0 / window : 0;
+    }
+
+    boolean isSaturated() {
+        return completionRate() < targetRate * SUSTAINED_RATIO
+                || timedOut > 0
+                || errors.get() > 0
+                || rejected.get() > sent.get() / 100;
+    }
+
+    void print(PrintStream out) {
+        double sendSeconds = sendingMicros / 1_000_000.0;
+        out.printf("%n=== %s: target %d req/s ===%n", name, targetRate);
+        out.printf("  requests      sent=%d accepted=%d rejected=%d errors=%d  (%.1f req/s sent)%n",
+                sent.get(), accepted.get(), rejected.get(), errors.get(), sendSeconds > 0 ? sent.get() / sendSeconds : 0);
+        out.printf("  completions   sent=%d failed=%d timed-out=%d  (%.1f txn/s end to end)%n",
+                completed.get(), notificationFailures.get(), timedOut, completionRate());
+        out.printf("  account-svc   calls=%d mutations=%d%n", accountServiceCalls, accountServiceMutations);
+        printLatency(out, "POST", postLatency);
+        printLatency(out, "POST->SENT", endToEndLatency);
+        out.printf("  verdict       %s%n", isSaturated() ? "SATURATED" : "sustained");
+    }
+
+    void writeHistograms(Path dir) throws IOException {
+        writeHistogram(dir.resolve(name + "-post.hgrm"), postLatency);
+        writeHistogram(dir.resolve(name + "-end-to-end.hgrm"), endToEndLatency);
+    }
+
+    private static void printLatency(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("  %-13s no samples%n", label);
+            return;
+        }
+        out.printf("  %-13s p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f ms%n", label,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Percentile distribution in milliseconds, loadable by the HdrHistogram plotter
+            histogram.outputPercentileDistribution(out, (double) TimeUnit.MILLISECONDS.toMicros(1));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
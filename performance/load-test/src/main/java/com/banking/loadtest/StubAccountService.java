@@ -0,0 +1,153 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for account-service: answers the calls transaction-service makes on the
+ * processing path after a configurable latency (fixed plus uniform jitter), approves every
+ * mutation, and reports every account as USD so no transaction needs converting. Delayed
+ * responses are scheduled rather than slept on, so thousands of calls can be outstanding without
+ * a thread each.
+ */
+@Slf4j
+final class StubAccountService implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService responders;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong mutations = new AtomicLong();
+
+    private StubAccountService(Duration latency, Duration jitter) throws IOException {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.handlers = Executors.newFixedThreadPool(4);
+        this.responders = Executors.newScheduledThreadPool(2);
+        server.setExecutor(handlers);
+        server.createContext("/accounts", this::handle);
+    }
+
+    static StubAccountService start(Duration latency, Duration jitter) throws IOException {
+        StubAccountService stub = new StubAccountService(latency, jitter);
+        stub.server.start();
+        log.info("Stub account-service on port {} ({} ms + up to {} ms jitter)",
+                stub.port(), latency.toMillis(), jitter.toMillis());
+        return stub;
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    long calls() {
+        return calls.get();
+    }
+
+    long mutations() {
+        return mutations.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        byte[] request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = in.readAllBytes();
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        byte[] body;
+        if ("POST".equals(method) && path.equals("/accounts/balances/batch")) {
+            body = applyBalanceMutations(request);
+        } else if ("POST".equals(method) && path.equals("/accounts/transfers")) {
+            mutations.addAndGet(2);
+            body = new byte[0];
+        } else if ("PUT".equals(method) && path.endsWith("/balance")) {
+            mutations.incrementAndGet();
+            body = new byte[0];
+        } else if ("GET".equals(method) && path.startsWith("/accounts/number/")) {
+            body = account(path.substring("/accounts/number/".length()));
+        } else {
+            respond(exchange, 404, new byte[0]);
+            return;
+        }
+
+        long delay = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0);
+        if (delay == 0) {
+            respond(exchange, 200, body);
+        } else {
+            responders.schedule(() -> respond(exchange, 200, body), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // The fields of account-service's AccountResponse that transaction-service reads
+    private byte[] account(String accountNumber) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("accountNumber", accountNumber)
+                .put("currency", "USD");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Same shape as account-service's BalanceMutationBatchResponse, results in request order
+    private byte[] applyBalanceMutations(byte[] request) throws IOException {
+        JsonNode mutationList = objectMapper.readTree(request).path("mutations");
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode results = response.putArray("results");
+        for (JsonNode mutation : mutationList) {
+            results.addObject()
+                    .put("reference", mutation.path("reference").asText())
+                    .put("accountNumber", mutation.path("accountNumber").asText())
+                    .put("status", "APPLIED")
+                    .put("balance", 0);
+        }
+        response.put("applied", results.size());
+        response.put("rejected", 0);
+        mutations.addAndGet(results.size());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (body.length > 0) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+            }
+            exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+            if (body.length > 0) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            log.debug("Stub account-service could not respond", e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responders.shutdownNow();
+        handlers.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.banking.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Relative weights of the three transaction types, written as {@code deposit:withdrawal:transfer}.
+ */
+record TrafficMix(int deposit, int withdrawal, int transfer) {
+
+    TrafficMix {
+        if (deposit < 0 || withdrawal < 0 || transfer < 0 || deposit + withdrawal + transfer == 0) {
+            throw new IllegalArgumentException("Mix weights must be non-negative and not all zero");
+        }
+    }
+
+    static TrafficMix parse(String mix) {
+        String[] parts = mix.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected deposit:withdrawal:transfer, got: " + mix);
+        }
+        return new TrafficMix(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+
+    String pick() {
+        int roll = ThreadLocalRandom.current().nextInt(deposit + withdrawal + transfer);
+        if (roll < deposit) {
+            return "DEPOSIT";
+        }
+        return roll < deposit + withdrawal ? "WITHDRAWAL" : "TRANSFER";
+    }
+
+    @Override
+    public String toString() {
+        return deposit + ":" + withdrawal + ":" + transfer;
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.loadtest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Maps {@link System#nanoTime()} readings onto wall-clock microseconds, so intended send times
+ * (taken from the monotonic clock) can be compared with timestamps written by the services.
+ */
+final class WallClock {
+
+    private static final long ANCHOR_NANOS = System.nanoTime();
+    private static final long ANCHOR_EPOCH_MICROS = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+
+    private WallClock() {
+    }
+
+    static long epochMicros(long nanoTime) {
+        return ANCHOR_EPOCH_MICROS + (nanoTime - ANCHOR_NANOS) / 1000;
+    }
+
+    // Services run with -Duser.timezone=UTC, see ServiceProcess
+    static long epochMicros(LocalDateTime utcTimestamp) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, utcTimestamp.toInstant(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,81 @@
+package com.banking.transactionservice.kafka;
+
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+import com.banking.common.event.codec.EventFormat;
+import com.banking.transactionservice.config.AppConfig;
+import com.banking.transactionservice.model.OutboxEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the outbox rows {@link TransactionEventProducer} writes for each transaction, in both
+ * wire formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutboxEncodingBenchmark {
+
+    @Param({"BINARY", "JSON"})
+    public EventFormat format;
+
+    private TransactionEventProducer producer;
+    private TransactionCreatedEvent createdEvent;
+    private TransactionCompletedEvent completedEvent;
+
+    @Setup
+    public void setUp() {
+        // toOutboxEvent() never touches the repository
+        producer = new TransactionEventProducer(null, new AppConfig().transactionEventCodec(), format);
+
+        LocalDateTime now = LocalDateTime.of(2024, 10, 1, 12, 30, 15, 123_456_000);
+        createdEvent = TransactionCreatedEvent.builder()
+                .transactionId("01JAB3K6ZQ0A8F4TQ3W7Y2N5VX")
+                .fromAccount("1234567890")
+                .toAccount("0987654321")
+                .type("TRANSFER")
+                .amount(new BigDecimal("1250.75"))
+                .currency("USD")
+                .description("Invoice 2024-117 settlement")
+                .timestamp(now)
+                .build();
+        completedEvent = TransactionCompletedEvent.builder()
+                .transactionId("01JAB3K6ZQ0A8F4TQ3W7Y2N5VX")
+                .fromAccount("1234567890")
+                .toAccount("0987654321")
+                .type("TRANSFER")
+                .amount(new BigDecimal("1250.75"))
+                .status("COMPLETED")
+                .timestamp(now)
+                .build();
+    }
+
+    @Benchmark
+    public OutboxEvent createdEvent() {
+        return producer.toOutboxEvent(TransactionEventProducer.TRANSACTION_CREATED_TOPIC,
+                createdEvent.getTransactionId(), createdEvent.getFromAccount(), createdEvent);
+    }
+
+    @Benchmark
+    public OutboxEvent completedEvent() {
+        return producer.toOutboxEvent(TransactionEventProducer.TRANSACTION_COMPLETED_TOPIC,
+                completedEvent.getTransactionId(), completedEvent.getFromAccount(), completedEvent);
+    }
+}
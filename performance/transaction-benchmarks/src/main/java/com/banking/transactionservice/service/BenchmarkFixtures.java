@@ -0,0 +1,39 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // A freshly created transfer, as saved by createTransaction
+    static Transaction pendingTransaction() {
+        return Transaction.builder()
+                .id(1_000_001L)
+                .transactionId("01JAB3K6ZQ0A8F4TQ3W7Y2N5VX")
+                .fromAccount("1234567890")
+                .toAccount("0987654321")
+                .type(Transaction.TransactionType.TRANSFER)
+                .amount(new BigDecimal("1250.75"))
+                .currency("USD")
+                .status(Transaction.TransactionStatus.PENDING)
+                .description("Invoice 2024-117 settlement")
+                .createdAt(LocalDateTime.of(2024, 10, 1, 12, 30, 15, 123_456_000))
+                .eventVersion(1L)
+                .build();
+    }
+
+    // The same transaction after processTransaction, with the created state as its event baseline
+    static Transaction completedTransaction() {
+        Transaction transaction = pendingTransaction();
+        transaction.captureEventBaseline();
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setCompletedAt(transaction.getCreatedAt().plusNanos(4_200_000));
+        transaction.setEventVersion(2L);
+        return transaction;
+    }
+}
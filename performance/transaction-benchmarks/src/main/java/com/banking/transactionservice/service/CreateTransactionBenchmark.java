@@ -0,0 +1,165 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.TransactionServiceApplication;
+import com.banking.transactionservice.client.AccountClient;
+import com.banking.transactionservice.dto.AccountBalanceSnapshot;
+import com.banking.transactionservice.dto.AccountSummary;
+import com.banking.transactionservice.dto.AppliedMutation;
+import com.banking.transactionservice.dto.AppliedMutationLookupRequest;
+import com.banking.transactionservice.dto.AccountTransferRequest;
+import com.banking.transactionservice.dto.BalanceMutation;
+import com.banking.transactionservice.dto.BalanceMutationBatchRequest;
+import com.banking.transactionservice.dto.BalanceMutationBatchResponse;
+import com.banking.transactionservice.dto.BalanceMutationResult;
+import com.banking.transactionservice.dto.TransactionRequest;
+import com.banking.transactionservice.dto.TransactionResponse;
+import com.banking.transactionservice.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole {@link TransactionService#createTransaction} path in a real application context:
+ * validation, id generation, JPA insert into in-memory H2, event store append, outbox write and,
+ * because processing runs inline, processTransaction with its account-service call and second
+ * event. Account-service is a stub that answers immediately, so the result is transaction-service's
+ * own cost. The outbox relay is disabled; outbox rows accumulate in H2 for the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateTransactionBenchmark {
+
+    @Param({"DEPOSIT", "WITHDRAWAL", "TRANSFER"})
+    public Transaction.TransactionType type;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRequest request;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(TransactionServiceApplication.class, StubAccountServiceConfig.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they take precedence over application.yml
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.kafka.admin.auto-create=false",
+                        "--eureka.client.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.banking.transactionservice=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--transaction.outbox.relay.enabled=false",
+                        "--transaction.processing.async=false",
+                        // A single caller would otherwise wait out the full linger window on every call
+                        "--transaction.account-client.coalescing.linger-ms=0");
+        transactionService = context.getBean(TransactionService.class);
+
+        request = new TransactionRequest();
+        request.setType(type);
+        request.setFromAccount("1234567890");
+        request.setToAccount(type == Transaction.TransactionType.TRANSFER ? "0987654321" : null);
+        request.setAmount(new BigDecimal("1250.75"));
+        request.setCurrency("USD");
+        request.setDescription("Invoice 2024-117 settlement");
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse createTransaction() {
+        return transactionService.createTransaction(request);
+    }
+
+    @Configuration
+    static class StubAccountServiceConfig {
+
+        // Feign registers its clients as primary; let the stub win instead
+        @Bean
+        static BeanFactoryPostProcessor demoteFeignAccountClient() {
+            return beanFactory -> {
+                String feignClient = AccountClient.class.getName();
+                if (beanFactory.containsBeanDefinition(feignClient)) {
+                    beanFactory.getBeanDefinition(feignClient).setPrimary(false);
+                }
+            };
+        }
+
+        @Bean
+        @Primary
+        AccountClient stubAccountClient() {
+            return new AccountClient() {
+                @Override
+                public AccountSummary getAccount(String accountNumber) {
+                    return new AccountSummary(accountNumber, "USD");
+                }
+
+                @Override
+                public void updateBalance(String accountNumber, BigDecimal amount, String reference) {
+                }
+
+                @Override
+                public BalanceMutationBatchResponse applyBalanceMutations(BalanceMutationBatchRequest request) {
+                    List<BalanceMutationResult> results = new ArrayList<>(request.getMutations().size());
+                    for (BalanceMutation mutation : request.getMutations()) {
+                        results.add(BalanceMutationResult.builder()
+                                .reference(mutation.getReference())
+                                .accountNumber(mutation.getAccountNumber())
+                                .status(BalanceMutationResult.Status.APPLIED)
+                                .balance(BigDecimal.ZERO)
+                                .build());
+                    }
+                    return new BalanceMutationBatchResponse(results.size(), 0, results);
+                }
+
+                @Override
+                public void transfer(AccountTransferRequest request) {
+                }
+
+                @Override
+                public List<String> getBalancePartitions(int size) {
+                    return List.of();
+                }
+
+                @Override
+                public List<AccountBalanceSnapshot> exportBalances(String from, String to) {
+                    return List.of();
+                }
+
+                @Override
+                public List<AppliedMutation> findAppliedMutations(AppliedMutationLookupRequest request) {
+                    return List.of();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.transactionservice.service;
+
+import com.banking.common.event.TransactionCreatedEvent;
+import com.banking.transactionservice.config.AppConfig;
+import com.banking.transactionservice.dto.TransactionResponse;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.model.TransactionEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-transaction CPU work that doesn't touch the database: event-store payloads (a full state
+ * on create, a delta on completion), the Kafka created-event, and the REST response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+
+    private TransactionEventStore eventStore;
+    private Transaction pending;
+    private Transaction completed;
+
+    @Setup
+    public void setUp() {
+        // encode() and serialize() never touch the repository
+        eventStore = new TransactionEventStore(null, new AppConfig().objectMapper(), 10, 512);
+        pending = BenchmarkFixtures.pendingTransaction();
+        completed = BenchmarkFixtures.completedTransaction();
+    }
+
+    @Benchmark
+    public String serializeTransaction() {
+        return eventStore.serialize(pending);
+    }
+
+    @Benchmark
+    public TransactionEvent encodeFullEvent() {
+        return eventStore.encode(pending, "TRANSACTION_CREATED", 1);
+    }
+
+    @Benchmark
+    public TransactionEvent encodeDeltaEvent() {
+        return eventStore.encode(completed, "TRANSACTION_COMPLETED", 2);
+    }
+
+    @Benchmark
+    public TransactionCreatedEvent buildCreatedEvent() {
+        return TransactionService.buildTransactionCreatedEvent(pending);
+    }
+
+    @Benchmark
+    public TransactionResponse mapToResponse() {
+        return TransactionService.mapToResponse(completed);
+    }
+}
@@ -1,7 +1,14 @@
 package com.banking.accountservice.controller;
 
+import com.banking.accountservice.dto.AccountBalanceSnapshot;
 import com.banking.accountservice.dto.AccountRequest;
 import com.banking.accountservice.dto.AccountResponse;
+import com.banking.accountservice.dto.AppliedMutationLookupRequest;
+import com.banking.accountservice.dto.AppliedMutationResponse;
+import com.banking.accountservice.dto.BalanceMutationBatchRequest;
+import com.banking.accountservice.dto.BalanceMutationBatchResponse;
+import com.banking.accountservice.dto.TransferRequest;
+import com.banking.accountservice.dto.TransferResponse;
 import com.banking.accountservice.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -49,12 +56,50 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
 
+    // First account number of each partition of the balance export
+    @GetMapping("/balances/partitions")
+    public ResponseEntity<List<String>> getBalancePartitions(@RequestParam(defaultValue = "5000") int size) {
+        log.info("REST request to get balance partitions of {} accounts", size);
+        return ResponseEntity.ok(accountService.getBalancePartitions(size));
+    }
+
+    @GetMapping("/balances")
+    public ResponseEntity<List<AccountBalanceSnapshot>> exportBalances(
+            @RequestParam(defaultValue = "") String from,
+            @RequestParam(required = false) String to) {
+        log.info("REST request to export balances for accounts [{}, {})", from, to);
+        return ResponseEntity.ok(accountService.exportBalances(from, to));
+    }
+
     @PutMapping("/{accountNumber}/balance")
     public ResponseEntity<AccountResponse> updateBalance(
             @PathVariable String accountNumber,
-            @RequestParam BigDecimal amount) {
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String reference) {
         log.info("REST request to update balance for account: {}", accountNumber);
-        AccountResponse response = accountService.updateBalance(accountNumber, amount);
+        AccountResponse response = accountService.updateBalance(accountNumber, amount, reference);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/balances/batch")
+    public ResponseEntity<BalanceMutationBatchResponse> applyBalanceMutations(
+            @Valid @RequestBody BalanceMutationBatchRequest request) {
+        log.info("REST request to apply {} balance mutations", request.getMutations().size());
+        BalanceMutationBatchResponse response = accountService.applyBalanceMutations(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/mutations/lookup")
+    public ResponseEntity<List<AppliedMutationResponse>> findAppliedMutations(
+            @Valid @RequestBody AppliedMutationLookupRequest request) {
+        log.info("REST request to look up {} mutation references", request.getReferences().size());
+        return ResponseEntity.ok(accountService.findAppliedMutations(request.getReferences()));
+    }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
+        log.info("REST request to transfer from {} to {}", request.getFromAccount(), request.getToAccount());
+        TransferResponse response = accountService.transfer(request);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,20 @@
+package com.banking.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSnapshot {
+
+    private String accountNumber;
+    // Null for accounts created before opening balances were recorded
+    private BigDecimal openingBalance;
+    private BigDecimal balance;
+}
@@ -0,0 +1,19 @@
+package com.banking.accountservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedMutationLookupRequest {
+
+    @NotEmpty(message = "At least one reference is required")
+    @Size(max = 1000, message = "At most 1000 references per lookup")
+    private List<String> references;
+}
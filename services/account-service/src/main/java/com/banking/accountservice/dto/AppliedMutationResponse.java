@@ -0,0 +1,21 @@
+package com.banking.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppliedMutationResponse {
+
+    private String reference;
+    private String accountNumber;
+    private BigDecimal amount;
+    private LocalDateTime appliedAt;
+}
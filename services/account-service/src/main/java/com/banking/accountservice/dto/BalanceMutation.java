@@ -0,0 +1,33 @@
+package com.banking.accountservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMutation {
+
+    // Caller's identifier for this change, echoed back in the result; a reference already applied
+    // to the account is not applied again
+    @NotBlank(message = "Reference is required")
+    private String reference;
+
+    @NotBlank(message = "Account number is required")
+    private String accountNumber;
+
+    // Positive credits, negative debits
+    @NotNull(message = "Amount is required")
+    private BigDecimal amount;
+
+    // Set when the caller netted several changes into this one (amount is then their sum): each part
+    // is recorded under its own reference, and only the parts not already applied are applied
+    private List<@Valid BalanceMutationPart> parts;
+}
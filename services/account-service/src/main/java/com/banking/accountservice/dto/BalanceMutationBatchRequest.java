@@ -0,0 +1,20 @@
+package com.banking.accountservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMutationBatchRequest {
+
+    @NotEmpty(message = "At least one mutation is required")
+    @Size(max = 1000, message = "At most 1000 mutations per batch")
+    private List<@Valid BalanceMutation> mutations;
+}
@@ -0,0 +1,20 @@
+package com.banking.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceMutationBatchResponse {
+
+    private int applied;
+    private int rejected;
+    // Same order as the request's mutations
+    private List<BalanceMutationResult> results;
+}
@@ -0,0 +1,22 @@
+package com.banking.accountservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One of the changes a caller netted into a single BalanceMutation
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMutationPart {
+
+    @NotBlank(message = "Reference is required")
+    private String reference;
+
+    @NotNull(message = "Amount is required")
+    private BigDecimal amount;
+}
@@ -0,0 +1,28 @@
+package com.banking.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceMutationResult {
+
+    private String reference;
+    private String accountNumber;
+    private Status status;
+    // Balance after this mutation; null unless APPLIED
+    private BigDecimal balance;
+    private String message;
+
+    public enum Status {
+        APPLIED,
+        ACCOUNT_NOT_FOUND,
+        INSUFFICIENT_FUNDS
+    }
+}
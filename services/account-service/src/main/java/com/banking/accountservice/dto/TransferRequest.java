@@ -0,0 +1,33 @@
+package com.banking.accountservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+
+    @NotBlank(message = "Source account is required")
+    private String fromAccount;
+
+    @NotBlank(message = "Destination account is required")
+    private String toAccount;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    // Optional caller reference; a transfer whose reference was already applied is not applied again
+    private String reference;
+
+    // Optional amount credited to the destination, in its currency, when it differs from the source's; null = amount
+    @DecimalMin(value = "0.0", inclusive = false, message = "Credit amount must be greater than 0")
+    private BigDecimal creditAmount;
+}
@@ -0,0 +1,16 @@
+package com.banking.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferResponse {
+
+    private AccountResponse fromAccount;
+    private AccountResponse toAccount;
+}
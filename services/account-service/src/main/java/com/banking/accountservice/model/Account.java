@@ -40,6 +40,10 @@ public class Account {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;
 
+    // Initial deposit, the starting point for reconciling the balance against the transaction ledger
+    @Column(precision = 15, scale = 2, updatable = false)
+    private BigDecimal openingBalance;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private AccountStatus status;
@@ -0,0 +1,47 @@
+package com.banking.accountservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A caller reference whose balance change has been applied to an account, written in the same DB
+// transaction as the change so a retried reference is recognised and not applied twice
+@Entity
+@Table(name = "applied_mutations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_applied_mutations_reference_account", columnNames = {"reference", "accountNumber"})
+}, indexes = {
+        @Index(name = "idx_applied_mutations_applied_at", columnList = "appliedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedMutation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String reference;
+
+    @Column(nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime appliedAt;
+
+    public AppliedMutation(String reference, String accountNumber, BigDecimal amount) {
+        this.reference = reference;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+    }
+}
@@ -1,16 +1,45 @@
 package com.banking.accountservice.repository;
 
+import com.banking.accountservice.dto.AccountBalanceSnapshot;
 import com.banking.accountservice.model.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    // Rows are locked in account-number order, the same order transfer() uses
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+    List<Account> findAllByAccountNumberInForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.accountNumber from Account a order by a.accountNumber")
+    Stream<String> streamAccountNumbers();
+
+    @Query("select new com.banking.accountservice.dto.AccountBalanceSnapshot(a.accountNumber, a.openingBalance, a.balance) " +
+            "from Account a where a.accountNumber >= :from and (:to is null or a.accountNumber < :to) " +
+            "order by a.accountNumber")
+    List<AccountBalanceSnapshot> findBalancesInRange(@Param("from") String from, @Param("to") String to);
+
     Optional<Account> findByEmail(String email);
 
     boolean existsByAccountNumber(String accountNumber);
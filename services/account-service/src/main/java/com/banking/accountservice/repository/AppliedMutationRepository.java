@@ -0,0 +1,24 @@
+package com.banking.accountservice.repository;
+
+import com.banking.accountservice.model.AppliedMutation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppliedMutationRepository extends JpaRepository<AppliedMutation, Long> {
+
+    boolean existsByReferenceAndAccountNumber(String reference, String accountNumber);
+
+    List<AppliedMutation> findByReferenceIn(Collection<String> references);
+
+    @Modifying
+    @Query("delete from AppliedMutation m where m.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,26 +1,59 @@
 package com.banking.accountservice.service;
 
+import com.banking.accountservice.dto.AccountBalanceSnapshot;
 import com.banking.accountservice.dto.AccountRequest;
 import com.banking.accountservice.dto.AccountResponse;
+import com.banking.accountservice.dto.AppliedMutationResponse;
+import com.banking.accountservice.dto.BalanceMutation;
+import com.banking.accountservice.dto.BalanceMutationBatchRequest;
+import com.banking.accountservice.dto.BalanceMutationBatchResponse;
+import com.banking.accountservice.dto.BalanceMutationPart;
+import com.banking.accountservice.dto.BalanceMutationResult;
+import com.banking.accountservice.dto.TransferRequest;
+import com.banking.accountservice.dto.TransferResponse;
 import com.banking.accountservice.exception.AccountNotFoundException;
+import com.banking.accountservice.exception.InsufficientFundsException;
 import com.banking.accountservice.model.Account;
+import com.banking.accountservice.model.AppliedMutation;
 import com.banking.accountservice.repository.AccountRepository;
-import lombok.RequiredArgsConstructor;
+import com.banking.accountservice.repository.AppliedMutationRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final AppliedMutationRepository appliedMutationRepository;
+    // How long applied references are remembered, i.e. how late a retry is still recognised
+    private final Duration mutationRetention;
+
+    public AccountService(AccountRepository accountRepository,
+                          AppliedMutationRepository appliedMutationRepository,
+                          @Value("${account.mutations.retention:P7D}") Duration mutationRetention) {
+        this.accountRepository = accountRepository;
+        this.appliedMutationRepository = appliedMutationRepository;
+        this.mutationRetention = mutationRetention;
+    }
 
     @Transactional
     public AccountResponse createAccount(AccountRequest request) {
@@ -42,6 +75,7 @@ public class AccountService {
         account.setPhoneNumber(request.getPhoneNumber());
         account.setAccountType(request.getAccountType());
         account.setBalance(request.getInitialDeposit());
+        account.setOpeningBalance(request.getInitialDeposit());
         account.setCurrency(request.getCurrency());
         account.setStatus(Account.AccountStatus.ACTIVE);
 
@@ -73,19 +107,214 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Account numbers that split all accounts into consecutive partitions of {@code size}: each
+     * is the first account number of its partition. Only account numbers are read, so this stays
+     * cheap for millions of accounts.
+     */
+    @Transactional(readOnly = true)
+    public List<String> getBalancePartitions(int size) {
+        int partitionSize = Math.max(1, size);
+        List<String> boundaries = new ArrayList<>();
+        try (Stream<String> accountNumbers = accountRepository.streamAccountNumbers()) {
+            Iterator<String> iterator = accountNumbers.iterator();
+            for (long i = 0; iterator.hasNext(); i++) {
+                String accountNumber = iterator.next();
+                if (i % partitionSize == 0) {
+                    boundaries.add(accountNumber);
+                }
+            }
+        }
+        return boundaries;
+    }
+
+    // Balances of the accounts numbered from {@code from} (inclusive) up to {@code to} (exclusive, null = no bound)
+    @Transactional(readOnly = true)
+    public List<AccountBalanceSnapshot> exportBalances(String from, String to) {
+        log.info("Exporting balances for accounts [{}, {})", from, to);
+        return accountRepository.findBalancesInRange(from, to);
+    }
+
     @Transactional
-    public AccountResponse updateBalance(String accountNumber, BigDecimal amount) {
+    public AccountResponse updateBalance(String accountNumber, BigDecimal amount, String reference) {
         log.info("Updating balance for account: {}", accountNumber);
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with number: " + accountNumber));
+        // Row lock so concurrent deposits/withdrawals and transfer credits can't lose updates
+        Account account = lockAccount(accountNumber);
+
+        // Checked under the lock, so a concurrent retry of the same reference waits and then sees it
+        if (reference != null && appliedMutationRepository.existsByReferenceAndAccountNumber(reference, accountNumber)) {
+            log.info("Balance change {} already applied to account: {}", reference, accountNumber);
+            return mapToResponse(account);
+        }
 
         account.setBalance(account.getBalance().add(amount));
         Account updatedAccount = accountRepository.save(account);
+        if (reference != null) {
+            appliedMutationRepository.save(new AppliedMutation(reference, accountNumber, amount));
+        }
 
         log.info("Balance updated successfully for account: {}", accountNumber);
         return mapToResponse(updatedAccount);
     }
 
+    /**
+     * Applies a batch of balance changes in one DB transaction. Each touched account is locked
+     * once; mutations then apply in request order and succeed or fail individually. A debit that
+     * would overdraw the account is rejected.
+     *
+     * Every applied reference (or part reference, for netted mutations) is recorded with the
+     * balance change. A reference already recorded for the account is skipped, so retrying a
+     * mutation whose response was lost doesn't apply it twice; it reports APPLIED again.
+     */
+    @Transactional
+    public BalanceMutationBatchResponse applyBalanceMutations(BalanceMutationBatchRequest request) {
+        List<BalanceMutation> mutations = request.getMutations();
+        log.info("Applying {} balance mutations", mutations.size());
+
+        Set<String> accountNumbers = new TreeSet<>();
+        mutations.forEach(mutation -> accountNumbers.add(mutation.getAccountNumber()));
+        Map<String, Account> accounts = new HashMap<>();
+        accountRepository.findAllByAccountNumberInForUpdate(accountNumbers)
+                .forEach(account -> accounts.put(account.getAccountNumber(), account));
+
+        // Looked up once the accounts are locked, so concurrent retries of a reference serialise on the row
+        Set<String> references = new HashSet<>();
+        mutations.forEach(mutation -> parts(mutation).forEach(part -> references.add(part.getReference())));
+        Set<AppliedKey> alreadyApplied = new HashSet<>();
+        appliedMutationRepository.findByReferenceIn(references).forEach(appliedMutation ->
+                alreadyApplied.add(new AppliedKey(appliedMutation.getReference(), appliedMutation.getAccountNumber())));
+
+        List<BalanceMutationResult> results = new ArrayList<>(mutations.size());
+        List<AppliedMutation> recorded = new ArrayList<>();
+        int applied = 0;
+        for (BalanceMutation mutation : mutations) {
+            BalanceMutationResult.BalanceMutationResultBuilder result = BalanceMutationResult.builder()
+                    .reference(mutation.getReference())
+                    .accountNumber(mutation.getAccountNumber());
+
+            Account account = accounts.get(mutation.getAccountNumber());
+            if (account == null) {
+                results.add(result.status(BalanceMutationResult.Status.ACCOUNT_NOT_FOUND)
+                        .message("Account not found with number: " + mutation.getAccountNumber())
+                        .build());
+                continue;
+            }
+
+            // Parts apply in order, so a debit is checked against the balance the parts before it leave,
+            // as if they had been sent one by one; a net change that would overdraw at any step is refused
+            List<BalanceMutationPart> pending = new ArrayList<>();
+            BigDecimal newBalance = account.getBalance();
+            boolean overdrawn = false;
+            for (BalanceMutationPart part : parts(mutation)) {
+                if (alreadyApplied.add(new AppliedKey(part.getReference(), mutation.getAccountNumber()))) {
+                    pending.add(part);
+                    newBalance = newBalance.add(part.getAmount());
+                    overdrawn |= part.getAmount().signum() < 0 && newBalance.signum() < 0;
+                }
+            }
+            if (pending.isEmpty()) {
+                applied++;
+                results.add(result.status(BalanceMutationResult.Status.APPLIED).balance(account.getBalance())
+                        .message("Already applied").build());
+                continue;
+            }
+
+            if (overdrawn) {
+                // Not applied, so a later retry of these references may still go through
+                pending.forEach(part -> alreadyApplied.remove(new AppliedKey(part.getReference(), mutation.getAccountNumber())));
+                results.add(result.status(BalanceMutationResult.Status.INSUFFICIENT_FUNDS)
+                        .message("Insufficient funds in account: " + mutation.getAccountNumber())
+                        .build());
+                continue;
+            }
+
+            account.setBalance(newBalance);
+            pending.forEach(part -> recorded.add(
+                    new AppliedMutation(part.getReference(), mutation.getAccountNumber(), part.getAmount())));
+            applied++;
+            results.add(result.status(BalanceMutationResult.Status.APPLIED).balance(newBalance).build());
+        }
+        accountRepository.saveAll(accounts.values());
+        appliedMutationRepository.saveAll(recorded);
+
+        return BalanceMutationBatchResponse.builder()
+                .applied(applied)
+                .rejected(mutations.size() - applied)
+                .results(results)
+                .build();
+    }
+
+    @Transactional
+    public TransferResponse transfer(TransferRequest request) {
+        String fromNumber = request.getFromAccount();
+        String toNumber = request.getToAccount();
+        log.info("Transferring {} from {} to {}", request.getAmount(), fromNumber, toNumber);
+
+        if (fromNumber.equals(toNumber)) {
+            throw new IllegalArgumentException("Source and destination accounts must differ");
+        }
+
+        // Lock both rows in account-number order so opposing transfers can't deadlock
+        boolean fromFirst = fromNumber.compareTo(toNumber) < 0;
+        Account first = lockAccount(fromFirst ? fromNumber : toNumber);
+        Account second = lockAccount(fromFirst ? toNumber : fromNumber);
+        Account from = fromFirst ? first : second;
+        Account to = fromFirst ? second : first;
+
+        String reference = request.getReference();
+        if (reference != null && appliedMutationRepository.existsByReferenceAndAccountNumber(reference, fromNumber)) {
+            log.info("Transfer {} already applied from {} to {}", reference, fromNumber, toNumber);
+            return TransferResponse.builder()
+                    .fromAccount(mapToResponse(from))
+                    .toAccount(mapToResponse(to))
+                    .build();
+        }
+
+        if (from.getBalance().compareTo(request.getAmount()) < 0) {
+            throw new InsufficientFundsException("Insufficient funds in account: " + fromNumber);
+        }
+
+        // The caller converts cross-currency transfers and sends the destination's side separately
+        BigDecimal credit = request.getCreditAmount() != null ? request.getCreditAmount() : request.getAmount();
+        from.setBalance(from.getBalance().subtract(request.getAmount()));
+        to.setBalance(to.getBalance().add(credit));
+        accountRepository.save(from);
+        accountRepository.save(to);
+        if (reference != null) {
+            appliedMutationRepository.saveAll(List.of(
+                    new AppliedMutation(reference, fromNumber, request.getAmount().negate()),
+                    new AppliedMutation(reference, toNumber, credit)));
+        }
+
+        log.info("Transfer applied from {} to {}", fromNumber, toNumber);
+        return TransferResponse.builder()
+                .fromAccount(mapToResponse(from))
+                .toAccount(mapToResponse(to))
+                .build();
+    }
+
+    // Balance changes recorded under any of the references, for callers checking what reached an account
+    @Transactional(readOnly = true)
+    public List<AppliedMutationResponse> findAppliedMutations(List<String> references) {
+        return appliedMutationRepository.findByReferenceIn(references).stream()
+                .map(appliedMutation -> AppliedMutationResponse.builder()
+                        .reference(appliedMutation.getReference())
+                        .accountNumber(appliedMutation.getAccountNumber())
+                        .amount(appliedMutation.getAmount())
+                        .appliedAt(appliedMutation.getAppliedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${account.mutations.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeAppliedMutations() {
+        int purged = appliedMutationRepository.deleteAppliedBefore(LocalDateTime.now().minus(mutationRetention));
+        if (purged > 0) {
+            log.info("Purged {} applied mutation references older than {}", purged, mutationRetention);
+        }
+    }
+
     @Transactional
     public void deleteAccount(Long id) {
         log.info("Deleting account with ID: {}", id);
@@ -97,6 +326,22 @@ public class AccountService {
         log.info("Account closed successfully: {}", account.getAccountNumber());
     }
 
+    private Account lockAccount(String accountNumber) {
+        return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with number: " + accountNumber));
+    }
+
+    // A plain mutation is a single part under its own reference
+    private static List<BalanceMutationPart> parts(BalanceMutation mutation) {
+        if (mutation.getParts() == null || mutation.getParts().isEmpty()) {
+            return List.of(new BalanceMutationPart(mutation.getReference(), mutation.getAmount()));
+        }
+        return mutation.getParts();
+    }
+
+    private record AppliedKey(String reference, String accountNumber) {
+    }
+
     // Helper method to generate unique account number
     private String generateAccountNumber() {
         Random random = new Random();
@@ -14,8 +14,12 @@ class Settings(BaseSettings):
 
     # Kafka
     kafka_bootstrap_servers: str = "localhost:9092"
+    # Comma-separated, so legacy and new topics can both be consumed during a migration
     kafka_topic_transaction_created: str = "transaction-created"
     kafka_group_id: str = "fraud-detection-group"
+    # One KafkaConsumer per thread, up to the topic's 3 partitions (raise both together); each account
+    # stays on one thread only when transaction-service keys events by account (ACCOUNT partitioning)
+    kafka_consumer_threads: int = 3
 
     # Eureka
     eureka_server_url: str = "http://localhost:8761/eureka"
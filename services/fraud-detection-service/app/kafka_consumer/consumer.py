@@ -1,7 +1,7 @@
 from kafka import KafkaConsumer
-import json
 import logging
 from app.config import get_settings
+from app.kafka_consumer.event_codec import decode_event
 from app.models.schemas import TransactionEvent
 from app.services.fraud_service import FraudService
 from app.models.database import SessionLocal
@@ -15,16 +15,17 @@ class TransactionConsumer:
     def __init__(self):
         self.fraud_service = FraudService()
 
+        topics = [topic.strip() for topic in settings.kafka_topic_transaction_created.split(",") if topic.strip()]
         self.consumer = KafkaConsumer(
-            settings.kafka_topic_transaction_created,
+            *topics,
             bootstrap_servers=settings.kafka_bootstrap_servers,
             group_id=settings.kafka_group_id,
             auto_offset_reset='earliest',
             enable_auto_commit=True,
-            value_deserializer=lambda m: json.loads(m.decode('utf-8'))
+            value_deserializer=decode_event
         )
 
-        logger.info(f"Kafka consumer initialized for topic: {settings.kafka_topic_transaction_created}")
+        logger.info(f"Kafka consumer initialized for topics: {topics}")
 
     def start(self):
         """Start consuming messages"""
@@ -0,0 +1,105 @@
+"""Decoder for transaction events published by transaction-service.
+
+Payloads are either the compact binary format from the shared common-models codec
+(first byte 0xB7) or the JSON fallback. Both decode to the same camelCase dict.
+"""
+import json
+from datetime import datetime, timedelta
+from decimal import Decimal
+
+MAGIC = 0xB7
+SCHEMA_VERSION = 1
+
+TYPE_CREATED = 1
+TYPE_COMPLETED = 2
+
+DECIMAL_NULL = 0
+DECIMAL_LONG = 1
+DECIMAL_BIG = 2
+
+_EPOCH = datetime(1970, 1, 1)
+
+
+class _Reader:
+    def __init__(self, data: bytes, offset: int):
+        self.data = data
+        self.pos = offset
+
+    def byte(self) -> int:
+        value = self.data[self.pos]
+        self.pos += 1
+        return value
+
+    def varint(self) -> int:
+        result = 0
+        shift = 0
+        while True:
+            b = self.byte()
+            result |= (b & 0x7F) << shift
+            if not b & 0x80:
+                return result
+            shift += 7
+
+    def zigzag(self) -> int:
+        raw = self.varint()
+        return (raw >> 1) ^ -(raw & 1)
+
+    def string(self):
+        length = self.varint()
+        if length == 0:
+            return None
+        length -= 1
+        value = self.data[self.pos:self.pos + length].decode('utf-8')
+        self.pos += length
+        return value
+
+    def decimal(self):
+        kind = self.byte()
+        if kind == DECIMAL_NULL:
+            return None
+        scale = self.zigzag()
+        if kind == DECIMAL_LONG:
+            unscaled = self.zigzag()
+        else:
+            length = self.varint()
+            unscaled = int.from_bytes(self.data[self.pos:self.pos + length], 'big', signed=True)
+            self.pos += length
+        return Decimal(unscaled).scaleb(-scale)
+
+    def timestamp(self):
+        if self.byte() == 0:
+            return None
+        seconds = self.zigzag()
+        nanos = self.varint()
+        return _EPOCH + timedelta(seconds=seconds, microseconds=nanos // 1000)
+
+
+def decode_event(data: bytes) -> dict:
+    if not data or data[0] != MAGIC:
+        return json.loads(data.decode('utf-8'))
+
+    reader = _Reader(data, 1)
+    schema_version = reader.byte()
+    if schema_version > SCHEMA_VERSION:
+        raise ValueError(f"Unsupported event schema version: {schema_version}")
+
+    event_type = reader.byte()
+    event = {
+        'transactionId': reader.string(),
+        'fromAccount': reader.string(),
+        'toAccount': reader.string(),
+        'type': reader.string(),
+        'amount': reader.decimal(),
+    }
+    if event_type == TYPE_CREATED:
+        event['currency'] = reader.string()
+        event['description'] = reader.string()
+    elif event_type == TYPE_COMPLETED:
+        event['status'] = reader.string()
+    else:
+        raise ValueError(f"Unknown binary event type: {event_type}")
+    event['timestamp'] = reader.timestamp()
+
+    if event['amount'] is not None:
+        event['amount'] = float(event['amount'])
+    return event
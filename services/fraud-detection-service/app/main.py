@@ -19,8 +19,8 @@ logging.basicConfig(
 logger = logging.getLogger(__name__)
 settings = get_settings()
 
-# Kafka consumer thread
-kafka_thread = None
+# Kafka consumer threads
+kafka_threads = []
 
 
 async def heartbeat_task():
@@ -57,13 +57,14 @@ async def lifespan(app: FastAPI):
     except Exception as e:
         logger.warning(f"Could not register with Eureka: {e}")
 
-    # Start Kafka consumer in a separate thread
-    logger.info("Starting Kafka consumer...")
-    global kafka_thread
-    consumer = TransactionConsumer()
-    kafka_thread = threading.Thread(target=consumer.start, daemon=True)
-    kafka_thread.start()
-    logger.info("✅ Kafka consumer started")
+    # Start Kafka consumers, one thread each; the group spreads the partitions across them
+    logger.info(f"Starting {settings.kafka_consumer_threads} Kafka consumers...")
+    for i in range(max(1, settings.kafka_consumer_threads)):
+        consumer = TransactionConsumer()
+        thread = threading.Thread(target=consumer.start, name=f"kafka-consumer-{i}", daemon=True)
+        thread.start()
+        kafka_threads.append(thread)
+    logger.info("✅ Kafka consumers started")
 
     # Start heartbeat task
     asyncio.create_task(heartbeat_task())
@@ -1,7 +1,9 @@
 package com.banking.notificationservice.controller;
 
 import com.banking.notificationservice.dto.NotificationResponse;
+import com.banking.notificationservice.dto.NotificationSearchRequest;
 import com.banking.notificationservice.service.NotificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -38,6 +40,16 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Bulk form of /transaction/{transactionId}, for callers tracking many transactions at once
+    @PostMapping("/search")
+    public ResponseEntity<List<NotificationResponse>> searchByTransactions(
+            @Valid @RequestBody NotificationSearchRequest request) {
+        log.info("REST request to search notifications for {} transactions", request.getTransactionIds().size());
+        List<NotificationResponse> notifications =
+                notificationService.getNotificationsByTransactions(request.getTransactionIds());
+        return ResponseEntity.ok(notifications);
+    }
+
     @GetMapping
     public ResponseEntity<List<NotificationResponse>> getAllNotifications() {
         log.info("REST request to get all notifications");
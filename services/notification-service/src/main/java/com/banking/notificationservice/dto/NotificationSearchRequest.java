@@ -0,0 +1,19 @@
+package com.banking.notificationservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSearchRequest {
+
+    @NotEmpty(message = "At least one transaction ID is required")
+    @Size(max = 1000, message = "At most 1000 transaction IDs per search")
+    private List<String> transactionIds;
+}
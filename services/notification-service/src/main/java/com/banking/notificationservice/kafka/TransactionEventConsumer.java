@@ -1,38 +1,46 @@
 package com.banking.notificationservice.kafka;
 
-import com.banking.notificationservice.event.TransactionCompletedEvent;
-import com.banking.notificationservice.event.TransactionCreatedEvent;
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
 import com.banking.notificationservice.service.NotificationService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+/**
+ * Listens to the transaction event topics with one consumer thread per {@code concurrency}, each
+ * owning a share of the partitions; it defaults to the topics' 3 partitions and is raised together
+ * with them. transaction-service keys events by transaction id unless it runs with ACCOUNT
+ * partitioning, and only then are one account's notifications handled in order. The topic settings
+ * take comma-separated lists, so legacy and new topics can both be consumed while events migrate
+ * between them.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventConsumer {
 
     private final NotificationService notificationService;
-    private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "transaction-created", groupId = "notification-service-group")
-    public void consumeTransactionCreated(String message) {
+    @KafkaListener(topics = "#{'${notification.kafka.topics.created:transaction-created}'.split(',')}",
+            groupId = "notification-service-group",
+            concurrency = "${notification.kafka.concurrency:3}")
+    public void consumeTransactionCreated(TransactionCreatedEvent event) {
         try {
-            log.info("Received TransactionCreatedEvent: {}", message);
-            TransactionCreatedEvent event = objectMapper.readValue(message, TransactionCreatedEvent.class);
+            log.info("Received TransactionCreatedEvent: {}", event);
             notificationService.handleTransactionCreated(event);
         } catch (Exception e) {
             log.error("Error processing TransactionCreatedEvent", e);
         }
     }
 
-    @KafkaListener(topics = "transaction-completed", groupId = "notification-service-group")
-    public void consumeTransactionCompleted(String message) {
+    @KafkaListener(topics = "#{'${notification.kafka.topics.completed:transaction-completed}'.split(',')}",
+            groupId = "notification-service-group",
+            concurrency = "${notification.kafka.concurrency:3}")
+    public void consumeTransactionCompleted(TransactionCompletedEvent event) {
         try {
-            log.info("Received TransactionCompletedEvent: {}", message);
-            TransactionCompletedEvent event = objectMapper.readValue(message, TransactionCompletedEvent.class);
+            log.info("Received TransactionCompletedEvent: {}", event);
             notificationService.handleTransactionCompleted(event);
         } catch (Exception e) {
             log.error("Error processing TransactionCompletedEvent", e);
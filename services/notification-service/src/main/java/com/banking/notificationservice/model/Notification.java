@@ -10,7 +10,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_transaction_id", columnList = "transactionId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,6 +4,7 @@ import com.banking.notificationservice.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +19,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByTransactionId(String transactionId);
 
+    List<Notification> findByTransactionIdIn(Collection<String> transactionIds);
+
     List<Notification> findByStatus(Notification.NotificationStatus status);
 }
\ No newline at end of file
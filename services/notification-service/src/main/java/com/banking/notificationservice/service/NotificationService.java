@@ -1,8 +1,8 @@
 package com.banking.notificationservice.service;
 
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
 import com.banking.notificationservice.dto.NotificationResponse;
-import com.banking.notificationservice.event.TransactionCompletedEvent;
-import com.banking.notificationservice.event.TransactionCreatedEvent;
 import com.banking.notificationservice.model.Notification;
 import com.banking.notificationservice.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
@@ -178,6 +178,13 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    public List<NotificationResponse> getNotificationsByTransactions(List<String> transactionIds) {
+        log.info("Fetching notifications for {} transactions", transactionIds.size());
+        return notificationRepository.findByTransactionIdIn(transactionIds).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     public List<NotificationResponse> getAllNotifications() {
         log.info("Fetching all notifications");
         return notificationRepository.findAll().stream()
@@ -0,0 +1,139 @@
+package com.banking.transactionservice.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only, memory-mapped segment written by {@link ArchiveSegmentWriter}. Only the sparse index
+ * is held on the heap; a lookup binary-searches it for the one block that can hold the key and
+ * inflates just that block straight from the mapping. Reads use absolute offsets, so one instance
+ * serves concurrent lookups.
+ */
+final class ArchiveSegment {
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final String[] blockKeys;
+    private final int[] blockOffsets;
+    private final String firstKey;
+    private final String lastKey;
+    private final int records;
+
+    private ArchiveSegment(Path file, MappedByteBuffer data, String[] blockKeys, int[] blockOffsets,
+                           String lastKey, int records) {
+        this.file = file;
+        this.data = data;
+        this.blockKeys = blockKeys;
+        this.blockOffsets = blockOffsets;
+        this.firstKey = blockKeys.length > 0 ? blockKeys[0] : null;
+        this.lastKey = lastKey;
+        this.records = records;
+    }
+
+    static ArchiveSegment open(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < ArchiveSegmentWriter.FOOTER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a segment file: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int footer = data.capacity() - ArchiveSegmentWriter.FOOTER_BYTES;
+        if (data.getInt(footer + Long.BYTES + Integer.BYTES) != ArchiveSegmentWriter.MAGIC) {
+            throw new IOException("Not a segment file: " + file);
+        }
+        int records = data.getInt(footer + Long.BYTES);
+        ByteBuffer index = data.duplicate().position((int) data.getLong(footer));
+        int blocks = index.getInt();
+        String[] blockKeys = new String[blocks];
+        int[] blockOffsets = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            blockKeys[i] = readString(index);
+            blockOffsets[i] = index.getInt();
+        }
+        String lastKey = readString(index);
+        return new ArchiveSegment(file, data, blockKeys, blockOffsets, lastKey, records);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int records() {
+        return records;
+    }
+
+    boolean mayContain(String key) {
+        return firstKey != null && key.compareTo(firstKey) >= 0 && key.compareTo(lastKey) <= 0;
+    }
+
+    Optional<byte[]> find(String key) throws IOException {
+        if (!mayContain(key)) {
+            return Optional.empty();
+        }
+        // The last block whose first key is at or below the key
+        int position = Arrays.binarySearch(blockKeys, key);
+        int block = position >= 0 ? position : -position - 2;
+
+        // Records are in key order, so the scan stops at the first key past the one sought
+        ByteBuffer records = ByteBuffer.wrap(inflate(blockOffsets[block]));
+        while (records.hasRemaining()) {
+            int comparison = readString(records).compareTo(key);
+            int valueLength = records.getInt();
+            if (comparison == 0) {
+                byte[] value = new byte[valueLength];
+                records.get(value);
+                return Optional.of(value);
+            }
+            if (comparison > 0) {
+                break;
+            }
+            records.position(records.position() + valueLength);
+        }
+        return Optional.empty();
+    }
+
+    private byte[] inflate(int offset) throws IOException {
+        int rawLength = data.getInt(offset);
+        int compressedLength = data.getInt(offset + Integer.BYTES);
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice(offset + 2 * Integer.BYTES, compressedLength));
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Truncated block at " + offset + " in " + file);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block at " + offset + " in " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,159 @@
+package com.banking.transactionservice.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one segment file. Records must be appended in ascending key order; they are packed into
+ * Deflate-compressed blocks of about {@code blockSize} raw bytes, and the sparse index written after
+ * the last block holds the first key and offset of each block. The file is written under a temporary
+ * name and only renamed into place once it is complete and synced, so readers never see a partial
+ * segment.
+ *
+ * Layout: blocks, each {@code [int rawLength][int compressedLength][deflated records]} with records
+ * {@code [int keyLength][key][int valueLength][value]}; then the index, {@code [int blocks]} followed by
+ * {@code [int keyLength][key][int offset]} per block and {@code [int keyLength][key]} of the last
+ * record; then the footer {@code [long indexOffset][int records][int MAGIC]}.
+ */
+final class ArchiveSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x54584152;
+    static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final Path target;
+    private final Path temporary;
+    private final int blockSize;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream block;
+    private final DataOutputStream blockOut;
+    private final List<String> blockKeys = new ArrayList<>();
+    private final List<Integer> blockOffsets = new ArrayList<>();
+    private long offset;
+    private String firstKeyInBlock;
+    private String lastKey;
+    private int records;
+    private boolean finished;
+
+    ArchiveSegmentWriter(Path target, int blockSize) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.blockSize = blockSize;
+        this.channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        this.block = new ByteArrayOutputStream(blockSize + blockSize / 4);
+        this.blockOut = new DataOutputStream(block);
+    }
+
+    void append(String key, byte[] value) throws IOException {
+        if (lastKey != null && key.compareTo(lastKey) <= 0) {
+            throw new IllegalArgumentException("Keys must be appended in ascending order: " + key + " after " + lastKey);
+        }
+        if (firstKeyInBlock == null) {
+            firstKeyInBlock = key;
+        }
+        writeString(blockOut, key);
+        blockOut.writeInt(value.length);
+        blockOut.write(value);
+        lastKey = key;
+        records++;
+        if (block.size() >= blockSize) {
+            flushBlock();
+        }
+    }
+
+    int records() {
+        return records;
+    }
+
+    long bytesWritten() {
+        return offset;
+    }
+
+    // Writes the index and footer, syncs, and moves the file to its final name
+    Path finish() throws IOException {
+        flushBlock();
+        long indexOffset = offset;
+        out.writeInt(blockKeys.size());
+        for (int i = 0; i < blockKeys.size(); i++) {
+            writeString(out, blockKeys.get(i));
+            out.writeInt(blockOffsets.get(i));
+        }
+        writeString(out, lastKey != null ? lastKey : "");
+        out.writeLong(indexOffset);
+        out.writeInt(records);
+        out.writeInt(MAGIC);
+        out.flush();
+        offset = channel.size();
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        channel.close();
+        Files.deleteIfExists(temporary);
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.size() == 0) {
+            return;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Segment " + target + " exceeds 2 GB; lower segment-max-records");
+        }
+        byte[] raw = block.toByteArray();
+        byte[] compressed = deflate(raw);
+        blockKeys.add(firstKeyInBlock);
+        blockOffsets.add((int) offset);
+        out.writeInt(raw.length);
+        out.writeInt(compressed.length);
+        out.write(compressed);
+        offset += 2L * Integer.BYTES + compressed.length;
+        block.reset();
+        firstKeyInBlock = null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4);
+            byte[] buffer = new byte[16 * 1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                compressed.write(buffer, 0, length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
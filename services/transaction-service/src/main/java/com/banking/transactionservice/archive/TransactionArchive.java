@@ -0,0 +1,218 @@
+package com.banking.transactionservice.archive;
+
+import com.banking.transactionservice.model.ArchivedTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The cold tier for finished transactions: immutable segment files in {@code directory}, each
+ * holding {@link ArchivedTransaction} records as JSON, sorted by transaction id, in compressed
+ * blocks with a sparse index (see {@link ArchiveSegmentWriter}). Segments are memory-mapped and
+ * searched newest first, skipping any whose key range can't hold the id; with time-ordered ids
+ * the ranges barely overlap, so a lookup usually inflates a single block.
+ *
+ * A segment is only ever added, never changed. The same transaction can end up in two segments
+ * (archived again after a crash before its rows were deleted); the newest copy wins. Segments
+ * written by other instances sharing the directory are picked up on the next lookup miss after
+ * the directory changes.
+ *
+ * There is no default directory: it must be storage every instance shares and that outlives them.
+ * Until one is set, lookups find nothing and no segment can be written.
+ */
+@Component
+@Slf4j
+public class TransactionArchive {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    // Null when transaction.archive.directory is not set
+    private final Path directory;
+    private final int blockSize;
+    private final ObjectMapper objectMapper;
+    private final Set<Path> opened = new HashSet<>();
+    // Newest first
+    private volatile List<ArchiveSegment> segments = List.of();
+    private volatile FileTime directoryModified;
+
+    public TransactionArchive(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.archive.directory:}") String directory,
+                              @Value("${transaction.archive.block-size-bytes:65536}") int blockSize) {
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath();
+        this.blockSize = Math.max(1024, blockSize);
+        refresh();
+        Gauge.builder("transaction.archive.segments", this, archive -> archive.segments.size())
+                .description("Archive segment files open for lookups")
+                .register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return directory != null;
+    }
+
+    public Optional<ArchivedTransaction> find(String transactionId) {
+        if (directory == null) {
+            return Optional.empty();
+        }
+        Optional<ArchivedTransaction> found = search(transactionId);
+        if (found.isEmpty() && directoryChanged()) {
+            refresh();
+            found = search(transactionId);
+        }
+        return found;
+    }
+
+    /**
+     * Starts a new segment. Records must be appended in ascending transaction id order; the segment
+     * becomes visible to lookups once {@link SegmentBuilder#publish()} returns.
+     */
+    public SegmentBuilder newSegment() {
+        if (directory == null) {
+            throw new IllegalStateException("transaction.archive.directory is not set");
+        }
+        try {
+            Files.createDirectories(directory);
+            String name = String.format("segment-%013d-%s%s", System.currentTimeMillis(),
+                    UUID.randomUUID().toString().substring(0, 8), SEGMENT_SUFFIX);
+            return new SegmentBuilder(new ArchiveSegmentWriter(directory.resolve(name), blockSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create an archive segment in " + directory, e);
+        }
+    }
+
+    private Optional<ArchivedTransaction> search(String transactionId) {
+        for (ArchiveSegment segment : segments) {
+            if (!segment.mayContain(transactionId)) {
+                continue;
+            }
+            try {
+                Optional<byte[]> record = segment.find(transactionId);
+                if (record.isPresent()) {
+                    return Optional.of(objectMapper.readValue(record.get(), ArchivedTransaction.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + transactionId + " from " + segment.file(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean directoryChanged() {
+        try {
+            return !Files.getLastModifiedTime(directory).equals(directoryModified);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Could not check archive directory {}: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    // Opens segments not seen yet; a file that isn't a valid segment is logged and skipped
+    private synchronized void refresh() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        try (Stream<Path> files = Files.list(directory)) {
+            directoryModified = Files.getLastModifiedTime(directory);
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(SEGMENT_SUFFIX) || opened.contains(file)) {
+                    continue;
+                }
+                try {
+                    updated.add(ArchiveSegment.open(file));
+                    opened.add(file);
+                } catch (IOException e) {
+                    log.warn("Skipping archive segment {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list archive directory " + directory, e);
+        }
+        publish(updated);
+    }
+
+    private synchronized void add(ArchiveSegment segment) {
+        if (opened.add(segment.file())) {
+            List<ArchiveSegment> updated = new ArrayList<>(segments);
+            updated.add(segment);
+            publish(updated);
+        }
+    }
+
+    // Segment names start with their creation time, so name order is age order
+    private void publish(List<ArchiveSegment> updated) {
+        updated.sort(Comparator.comparing((ArchiveSegment segment) -> segment.file().getFileName().toString())
+                .reversed());
+        int added = updated.size() - segments.size();
+        segments = List.copyOf(updated);
+        if (added > 0) {
+            log.info("Archive has {} segments in {} ({} new)", updated.size(), directory, added);
+        }
+    }
+
+    public final class SegmentBuilder implements Closeable {
+
+        private final ArchiveSegmentWriter writer;
+
+        private SegmentBuilder(ArchiveSegmentWriter writer) {
+            this.writer = writer;
+        }
+
+        public void append(ArchivedTransaction record) {
+            try {
+                writer.append(record.transaction().getTransactionId(), objectMapper.writeValueAsBytes(record));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write archive record " +
+                        record.transaction().getTransactionId(), e);
+            }
+        }
+
+        public int records() {
+            return writer.records();
+        }
+
+        // Returns the segment's size in bytes once it is durable and visible to lookups
+        public long publish() {
+            try {
+                Path file = writer.finish();
+                add(ArchiveSegment.open(file));
+                return writer.bytesWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not publish archive segment", e);
+            }
+        }
+
+        // Discards the segment unless it was published
+        @Override
+        public void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Could not discard unpublished archive segment: {}", e.getMessage());
+            }
+        }
+    }
+}
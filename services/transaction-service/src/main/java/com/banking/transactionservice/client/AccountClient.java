@@ -1,18 +1,55 @@
 package com.banking.transactionservice.client;
 
+import com.banking.transactionservice.dto.AccountBalanceSnapshot;
+import com.banking.transactionservice.dto.AccountSummary;
+import com.banking.transactionservice.dto.AccountTransferRequest;
+import com.banking.transactionservice.dto.AppliedMutation;
+import com.banking.transactionservice.dto.AppliedMutationLookupRequest;
+import com.banking.transactionservice.dto.BalanceMutationBatchRequest;
+import com.banking.transactionservice.dto.BalanceMutationBatchResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @FeignClient(name = "account-service")
 public interface AccountClient {
 
+    @GetMapping("/accounts/number/{accountNumber}")
+    AccountSummary getAccount(@PathVariable("accountNumber") String accountNumber);
+
+    // Account-service records the reference and skips it if it was already applied
     @PutMapping("/accounts/{accountNumber}/balance")
     void updateBalance(
             @PathVariable("accountNumber") String accountNumber,
-            @RequestParam("amount") BigDecimal amount
+            @RequestParam("amount") BigDecimal amount,
+            @RequestParam("reference") String reference
     );
+
+    // Results come back in request order; see BalanceMutationCoalescer
+    @PostMapping("/accounts/balances/batch")
+    BalanceMutationBatchResponse applyBalanceMutations(@RequestBody BalanceMutationBatchRequest request);
+
+    // Debit and credit applied in one account-service DB transaction
+    @PostMapping("/accounts/transfers")
+    void transfer(@RequestBody AccountTransferRequest request);
+
+    // Balance changes account-service has applied under any of the references
+    @PostMapping("/accounts/mutations/lookup")
+    List<AppliedMutation> findAppliedMutations(@RequestBody AppliedMutationLookupRequest request);
+
+    // First account number of each partition of {@code size} accounts, in account-number order
+    @GetMapping("/accounts/balances/partitions")
+    List<String> getBalancePartitions(@RequestParam("size") int size);
+
+    // Accounts numbered from {@code from} (inclusive) up to {@code to} (exclusive, null = no bound)
+    @GetMapping("/accounts/balances")
+    List<AccountBalanceSnapshot> exportBalances(@RequestParam("from") String from,
+                                                @RequestParam(value = "to", required = false) String to);
 }
\ No newline at end of file
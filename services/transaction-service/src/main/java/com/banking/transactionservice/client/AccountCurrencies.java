@@ -0,0 +1,42 @@
+package com.banking.transactionservice.client;
+
+import com.banking.transactionservice.dto.AccountSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The currency of each account, asked of account-service once and then answered from memory. An
+ * account's currency is set when it is opened and never changes, so entries can't go stale; the
+ * cache is only bounded so that rarely used accounts make room.
+ */
+@Component
+public class AccountCurrencies {
+
+    // Account-service's default for accounts opened without one
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    private final AccountClient accountClient;
+    private final AccountServiceGuard accountServiceGuard;
+    private final Cache<String, String> currencies;
+
+    public AccountCurrencies(AccountClient accountClient,
+                             AccountServiceGuard accountServiceGuard,
+                             @Value("${transaction.fx.account-currency-cache-size:100000}") long cacheSize) {
+        this.accountClient = accountClient;
+        this.accountServiceGuard = accountServiceGuard;
+        this.currencies = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public String currencyOf(String accountNumber) {
+        return currencies.get(accountNumber, this::fetch);
+    }
+
+    private String fetch(String accountNumber) {
+        AccountSummary account = accountServiceGuard.execute(() -> accountClient.getAccount(accountNumber));
+        return account.getCurrency() != null ? account.getCurrency() : DEFAULT_CURRENCY;
+    }
+}
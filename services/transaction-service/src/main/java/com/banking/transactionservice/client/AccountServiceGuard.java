@@ -0,0 +1,159 @@
+package com.banking.transactionservice.client;
+
+import com.banking.transactionservice.exception.AccountServiceUnavailableException;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for every {@link AccountClient} call. A call must pass, in order, the
+ * circuit breaker (open after sustained failures or slow calls), a fixed bulkhead (hard ceiling
+ * on concurrent calls) and an {@link AimdConcurrencyLimiter} (the adaptive limit under that
+ * ceiling). Anything turned away fails fast with {@link AccountServiceUnavailableException}
+ * instead of waiting out Feign's read timeout.
+ *
+ * 4xx responses are account-service answering correctly (unknown account, insufficient funds),
+ * so they count as successes for the breaker and the limiter.
+ */
+@Component
+@Slf4j
+public class AccountServiceGuard {
+
+    private static final String NAME = "account-service";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AimdConcurrencyLimiter limiter;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter limitRejections;
+
+    public AccountServiceGuard(
+            MeterRegistry meterRegistry,
+            @Value("${transaction.account-client.limiter.initial-limit:20}") int initialLimit,
+            @Value("${transaction.account-client.limiter.min-limit:2}") int minLimit,
+            @Value("${transaction.account-client.limiter.max-limit:200}") int maxLimit,
+            @Value("${transaction.account-client.limiter.latency-threshold-ms:250}") long latencyThresholdMs,
+            @Value("${transaction.account-client.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${transaction.account-client.bulkhead.max-concurrent-calls:200}") int maxConcurrentCalls,
+            @Value("${transaction.account-client.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${transaction.account-client.circuit-breaker.slow-call-duration-ms:2000}") long slowCallDurationMs,
+            @Value("${transaction.account-client.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${transaction.account-client.circuit-breaker.sliding-window-size:100}") int slidingWindowSize,
+            @Value("${transaction.account-client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${transaction.account-client.circuit-breaker.open-duration-ms:10000}") long openDurationMs) {
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.limiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMs, backoffRatio);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Account-service circuit breaker: {}", event.getStateTransition()));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        Gauge.builder("account.client.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for account-service calls")
+                .register(meterRegistry);
+        Gauge.builder("account.client.inflight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("Account-service calls in flight")
+                .register(meterRegistry);
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.bulkheadRejections = rejectionCounter(meterRegistry, "bulkhead");
+        this.limitRejections = rejectionCounter(meterRegistry, "limit");
+    }
+
+    /**
+     * Whether a call that failed with {@code e} may still have been applied by account-service:
+     * false only when the guard turned it away or account-service answered with a 4xx.
+     */
+    public static boolean mayHaveApplied(RuntimeException e) {
+        return !(e instanceof AccountServiceUnavailableException) && !isClientError(e);
+    }
+
+    private static boolean isClientError(RuntimeException e) {
+        return e instanceof FeignException feignException && feignException.status() >= 400 && feignException.status() < 500;
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new AccountServiceUnavailableException("Account service circuit is open");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            bulkheadRejections.increment();
+            throw new AccountServiceUnavailableException("Account service bulkhead is full");
+        }
+        if (!limiter.tryAcquire()) {
+            bulkhead.onComplete();
+            circuitBreaker.releasePermission();
+            limitRejections.increment();
+            throw new AccountServiceUnavailableException("Account service concurrency limit reached");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            limiter.onSuccess(elapsed);
+            return result;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            if (isClientError(e)) {
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                limiter.onIgnored();
+            } else {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+                limiter.onDropped();
+            }
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("account.client.rejections")
+                .description("Account-service calls rejected before being sent")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
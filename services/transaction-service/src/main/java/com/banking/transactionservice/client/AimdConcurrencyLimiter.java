@@ -0,0 +1,77 @@
+package com.banking.transactionservice.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase, multiplicative
+ * decrease). A call that completes under the latency threshold while the limit is being used
+ * grows the limit by roughly one per limit's worth of calls; a slow or dropped call multiplies it
+ * by the backoff ratio. Acquisition never blocks: a caller over the limit is rejected, so load
+ * above what the dependency currently sustains is shed instead of queued.
+ */
+class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void onSuccess(long latencyNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (concurrent * 2 >= limit) {
+            // Only grow while the limit is actually being exercised
+            increase();
+        }
+    }
+
+    void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    // Completed without telling us anything about the dependency's capacity
+    void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,339 @@
+package com.banking.transactionservice.client;
+
+import com.banking.transactionservice.dto.BalanceMutation;
+import com.banking.transactionservice.dto.BalanceMutationBatchRequest;
+import com.banking.transactionservice.dto.BalanceMutationBatchResponse;
+import com.banking.transactionservice.dto.BalanceMutationPart;
+import com.banking.transactionservice.dto.BalanceMutationResult;
+import com.banking.transactionservice.exception.AccountServiceUnavailableException;
+import com.banking.transactionservice.exception.BalanceChangeOutcomeUnknownException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces single balance changes into {@link AccountClient#applyBalanceMutations} calls. A
+ * flusher thread collects queued mutations until {@code max-batch-size} is reached or
+ * {@code linger-ms} has passed since the first one, then hands the batch to a sender; up to
+ * {@code max-in-flight} batches are outstanding at once, and while they are the queue keeps
+ * filling, so batches grow with load. Each caller's future completes with its own result.
+ *
+ * With netting enabled, mutations for the same account within one batch are sent as a single
+ * net change, so a burst of deposits to a hot account becomes one row update. Account-service
+ * checks funds part by part in submission order, so a debit is never covered by a credit queued
+ * after it; if a net change is refused, that account's mutations are resent individually in
+ * submission order so each debit gets its own verdict.
+ *
+ * A caller waits at most {@code wait-timeout-ms}, so a slow account-service can't hold the caller's
+ * worker and DB connection indefinitely. A mutation the caller gave up on before it was sent is
+ * dropped, and the caller fails it. Once sent, a mutation whose call times out or fails without a
+ * verdict may still have been applied, so the caller gets {@link BalanceChangeOutcomeUnknownException}
+ * instead and the transaction is left for recovery, which asks account-service what was applied.
+ *
+ * Mutations in one batch apply in submission order. Concurrent batches are not ordered against
+ * each other, which is safe because the processing pipeline never has two order-sensitive
+ * mutations for the same account outstanding; deposits, which commute, may overlap.
+ */
+@Component
+@Slf4j
+public class BalanceMutationCoalescer {
+
+    private final AccountClient accountClient;
+    private final AccountServiceGuard accountServiceGuard;
+    private final boolean enabled;
+    private final boolean netting;
+    private final long lingerNanos;
+    private final long waitTimeoutMs;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService senders;
+    private final Thread flusher;
+    private final DistributionSummary batchSizes;
+    private final Counter nettedMutations;
+    private final Counter nettingFallbacks;
+
+    public BalanceMutationCoalescer(AccountClient accountClient,
+                                    AccountServiceGuard accountServiceGuard,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transaction.account-client.coalescing.enabled:true}") boolean enabled,
+                                    @Value("${transaction.account-client.coalescing.linger-ms:2}") long lingerMs,
+                                    @Value("${transaction.account-client.coalescing.max-batch-size:200}") int maxBatchSize,
+                                    @Value("${transaction.account-client.coalescing.max-in-flight:4}") int maxInFlight,
+                                    @Value("${transaction.account-client.coalescing.netting:true}") boolean netting,
+                                    @Value("${transaction.account-client.coalescing.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.accountClient = accountClient;
+        this.accountServiceGuard = accountServiceGuard;
+        this.enabled = enabled;
+        this.netting = enabled && netting;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.batchSizes = DistributionSummary.builder("account.mutations.batch.size")
+                .description("Balance mutations sent per account-service batch call")
+                .register(meterRegistry);
+        this.nettedMutations = Counter.builder("account.mutations.netted")
+                .description("Balance mutations folded into a per-account net change")
+                .register(meterRegistry);
+        this.nettingFallbacks = Counter.builder("account.mutations.netting.fallbacks")
+                .description("Net debits refused for insufficient funds and resent individually")
+                .register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "balance-batch-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = new Thread(this::runFlusher, "balance-batch-flusher");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isNettingEnabled() {
+        return netting;
+    }
+
+    /**
+     * Queues the change and waits up to wait-timeout-ms for its result. Throws
+     * {@link AccountServiceUnavailableException} if it was never sent, and
+     * {@link BalanceChangeOutcomeUnknownException} if it was sent but no verdict came back.
+     */
+    public BalanceMutationResult submitAndWait(String accountNumber, BigDecimal amount, String reference) {
+        Submission submission = new Submission(new BalanceMutation(reference, accountNumber, amount));
+        queue.add(submission);
+        try {
+            return submission.future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            if (submission.abandon()) {
+                throw new AccountServiceUnavailableException(
+                        "Balance change " + reference + " not sent within " + waitTimeoutMs + " ms");
+            }
+            throw new BalanceChangeOutcomeUnknownException(
+                    "No result for balance change " + reference + " within " + waitTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (submission.abandon()) {
+                throw new AccountServiceUnavailableException("Interrupted before balance change " + reference + " was sent");
+            }
+            throw new BalanceChangeOutcomeUnknownException("Interrupted waiting for balance change " + reference);
+        }
+    }
+
+    private void runFlusher() {
+        List<Submission> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Take whatever is already queued, then wait out the rest of the linger window
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                inFlight.acquire();
+                // Callers that gave up while the batch waited for a send slot are not applied
+                batch.removeIf(pending -> !pending.markSent());
+                if (batch.isEmpty()) {
+                    inFlight.release();
+                    continue;
+                }
+                List<Submission> toSend = List.copyOf(batch);
+                batch.clear();
+                senders.execute(() -> {
+                    try {
+                        send(toSend);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        IllegalStateException stopped = new IllegalStateException("Balance mutation coalescer stopped");
+        batch.forEach(pending -> pending.future().completeExceptionally(stopped));
+        queue.forEach(pending -> pending.future().completeExceptionally(stopped));
+    }
+
+    private void send(List<Submission> batch) {
+        batchSizes.record(batch.size());
+        try {
+            if (netting) {
+                sendNetted(batch);
+            } else {
+                sendIndividually(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Balance mutation batch of {} failed", batch.size(), e);
+            RuntimeException failure = AccountServiceGuard.mayHaveApplied(e)
+                    ? new BalanceChangeOutcomeUnknownException("Balance mutation batch failed without a verdict", e)
+                    : e;
+            batch.forEach(pending -> pending.future().completeExceptionally(failure));
+        }
+    }
+
+    private void sendIndividually(List<Submission> batch) {
+        List<BalanceMutation> mutations = new ArrayList<>(batch.size());
+        batch.forEach(pending -> mutations.add(pending.mutation()));
+
+        List<BalanceMutationResult> results = apply(mutations);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(results.get(i));
+        }
+    }
+
+    private void sendNetted(List<Submission> batch) {
+        Map<String, List<Submission>> byAccount = new LinkedHashMap<>();
+        for (Submission pending : batch) {
+            byAccount.computeIfAbsent(pending.mutation().getAccountNumber(), account -> new ArrayList<>()).add(pending);
+        }
+        if (byAccount.size() == batch.size()) {
+            sendIndividually(batch);
+            return;
+        }
+
+        List<List<Submission>> groups = new ArrayList<>(byAccount.values());
+        List<BalanceMutation> mutations = new ArrayList<>(groups.size());
+        for (List<Submission> group : groups) {
+            if (group.size() == 1) {
+                mutations.add(group.get(0).mutation());
+                continue;
+            }
+            BigDecimal net = BigDecimal.ZERO;
+            List<BalanceMutationPart> parts = new ArrayList<>(group.size());
+            for (Submission pending : group) {
+                net = net.add(pending.mutation().getAmount());
+                parts.add(new BalanceMutationPart(pending.mutation().getReference(), pending.mutation().getAmount()));
+            }
+            // The parts keep every reference, so account-service can still tell which changes it has applied
+            BalanceMutation first = group.get(0).mutation();
+            mutations.add(new BalanceMutation(
+                    first.getReference() + "+" + (group.size() - 1), first.getAccountNumber(), net, parts));
+            nettedMutations.increment(group.size());
+        }
+
+        List<BalanceMutationResult> results = apply(mutations);
+        List<Submission> fallback = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            List<Submission> group = groups.get(i);
+            BalanceMutationResult result = results.get(i);
+            if (group.size() == 1) {
+                group.get(0).future().complete(result);
+            } else if (result.getStatus() == BalanceMutationResult.Status.INSUFFICIENT_FUNDS) {
+                nettingFallbacks.increment();
+                fallback.addAll(group);
+            } else {
+                for (Submission pending : group) {
+                    pending.future().complete(result.toBuilder()
+                            .reference(pending.mutation().getReference())
+                            .build());
+                }
+            }
+        }
+
+        if (!fallback.isEmpty()) {
+            sendIndividually(fallback);
+        }
+    }
+
+    private List<BalanceMutationResult> apply(List<BalanceMutation> mutations) {
+        BalanceMutationBatchRequest request = new BalanceMutationBatchRequest(mutations);
+        BalanceMutationBatchResponse response =
+                accountServiceGuard.execute(() -> accountClient.applyBalanceMutations(request));
+        List<BalanceMutationResult> results = response.getResults();
+        if (results == null || results.size() != mutations.size()) {
+            throw new IllegalStateException(String.format("Expected %d mutation results, got %s",
+                    mutations.size(), results == null ? "none" : results.size()));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        senders.shutdown();
+        if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Balance mutation senders did not finish within 30s, {} batches outstanding",
+                    maxInFlight - inFlight.availablePermits());
+            senders.shutdownNow();
+        }
+    }
+
+    // A queued change; the flusher marks it sent, or the caller abandons it first, never both
+    private static final class Submission {
+
+        private static final int QUEUED = 0;
+        private static final int SENT = 1;
+        private static final int ABANDONED = 2;
+
+        private final BalanceMutation mutation;
+        private final CompletableFuture<BalanceMutationResult> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Submission(BalanceMutation mutation) {
+            this.mutation = mutation;
+        }
+
+        BalanceMutation mutation() {
+            return mutation;
+        }
+
+        CompletableFuture<BalanceMutationResult> future() {
+            return future;
+        }
+
+        boolean markSent() {
+            return state.compareAndSet(QUEUED, SENT);
+        }
+
+        // True if the change will never be sent
+        boolean abandon() {
+            return state.compareAndSet(QUEUED, ABANDONED) || state.get() == ABANDONED;
+        }
+    }
+}
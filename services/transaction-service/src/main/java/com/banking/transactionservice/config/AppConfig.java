@@ -1,10 +1,18 @@
 package com.banking.transactionservice.config;
 
+import com.banking.common.event.codec.TransactionEventCodec;
+import com.banking.transactionservice.fx.FileFxRateSource;
+import com.banking.transactionservice.fx.FxRateSource;
+import com.banking.transactionservice.service.TransactionIdGenerator;
+import com.banking.transactionservice.service.UlidTransactionIdGenerator;
+import com.banking.transactionservice.service.UuidTransactionIdGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 
 @Configuration
 public class AppConfig {
@@ -16,4 +24,30 @@ public class AppConfig {
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public TransactionEventCodec transactionEventCodec() {
+        return new TransactionEventCodec();
+    }
+
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(
+            @Value("${transaction.id.strategy:ulid}") String strategy,
+            @Value("${transaction.id.node-id:-1}") int nodeId) {
+        return switch (strategy.toLowerCase()) {
+            case "ulid" -> new UlidTransactionIdGenerator(nodeId);
+            case "uuid" -> new UuidTransactionIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown transaction.id.strategy: " + strategy);
+        };
+    }
+
+    @Bean
+    public FxRateSource fxRateSource(
+            @Value("${transaction.fx.source:file}") String source,
+            @Value("${transaction.fx.file:classpath:fx-rates.properties}") Resource file) {
+        return switch (source.toLowerCase()) {
+            case "file" -> new FileFxRateSource(file);
+            default -> throw new IllegalArgumentException("Unknown transaction.fx.source: " + source);
+        };
+    }
+}
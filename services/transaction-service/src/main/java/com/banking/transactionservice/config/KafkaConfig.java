@@ -1,26 +1,28 @@
 package com.banking.transactionservice.config;
 
+import com.banking.transactionservice.kafka.EventTopics;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+// KafkaAdmin creates missing topics and adds partitions to existing ones that have fewer than configured
 @Configuration
 public class KafkaConfig {
 
     @Bean
-    public NewTopic transactionCreatedTopic() {
-        return TopicBuilder.name("transaction-created")
-                .partitions(3)
-                .replicas(1)
+    public NewTopic transactionCreatedTopic(EventTopics eventTopics) {
+        return TopicBuilder.name(eventTopics.getCreatedTopic())
+                .partitions(eventTopics.getPartitions())
+                .replicas(eventTopics.getReplicas())
                 .build();
     }
 
     @Bean
-    public NewTopic transactionCompletedTopic() {
-        return TopicBuilder.name("transaction-completed")
-                .partitions(3)
-                .replicas(1)
+    public NewTopic transactionCompletedTopic(EventTopics eventTopics) {
+        return TopicBuilder.name(eventTopics.getCompletedTopic())
+                .partitions(eventTopics.getPartitions())
+                .replicas(eventTopics.getReplicas())
                 .build();
     }
-}
\ No newline at end of file
+}
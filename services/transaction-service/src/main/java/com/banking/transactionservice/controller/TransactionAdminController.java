@@ -0,0 +1,127 @@
+package com.banking.transactionservice.controller;
+
+import com.banking.transactionservice.dto.ArchivalReport;
+import com.banking.transactionservice.dto.OutboxRelayStatus;
+import com.banking.transactionservice.dto.ReconciliationReport;
+import com.banking.transactionservice.dto.RecoveryReport;
+import com.banking.transactionservice.dto.ReplayReport;
+import com.banking.transactionservice.dto.StreamReplayResult;
+import com.banking.transactionservice.kafka.OutboxRelay;
+import com.banking.transactionservice.service.LedgerReconciliationService;
+import com.banking.transactionservice.service.TransactionArchivalService;
+import com.banking.transactionservice.service.TransactionRecoveryService;
+import com.banking.transactionservice.service.TransactionReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/transactions/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionAdminController {
+
+    private final TransactionReplayService replayService;
+    private final LedgerReconciliationService reconciliationService;
+    private final TransactionRecoveryService recoveryService;
+    private final TransactionArchivalService archivalService;
+    // Absent when transaction.outbox.relay.enabled=false
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayReport> replayAll(
+            @RequestParam(defaultValue = "VERIFY") TransactionReplayService.Mode mode) {
+        log.info("REST request to replay all transaction streams in {} mode", mode);
+        ReplayReport report = replayService.replayAll(mode);
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/replay/{transactionId}")
+    public ResponseEntity<StreamReplayResult> replayStream(
+            @PathVariable String transactionId,
+            @RequestParam(defaultValue = "VERIFY") TransactionReplayService.Mode mode) {
+        log.info("REST request to replay transaction {} in {} mode", transactionId, mode);
+        StreamReplayResult result = replayService.replayStream(transactionId, mode);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ReconciliationReport> reconcile() {
+        log.info("REST request to reconcile the ledger against account balances");
+        ReconciliationReport report = reconciliationService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+
+    // Settles stuck PENDING/PROCESSING transactions now instead of waiting for the next scheduled sweep
+    @PostMapping("/recovery")
+    public ResponseEntity<RecoveryReport> recover() {
+        log.info("REST request to recover stuck transactions");
+        RecoveryReport report = recoveryService.recover();
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/recovery/latest")
+    public ResponseEntity<RecoveryReport> getLatestRecovery() {
+        log.info("REST request to get the latest recovery report");
+        return recoveryService.getLatestReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Moves finished transactions past the configured age into archive segments now
+    @PostMapping("/archival")
+    public ResponseEntity<ArchivalReport> archive() {
+        log.info("REST request to archive old transactions");
+        ArchivalReport report = archivalService.archive();
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/archival/latest")
+    public ResponseEntity<ArchivalReport> getLatestArchival() {
+        log.info("REST request to get the latest archival report");
+        return archivalService.getLatestReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxRelayStatus> getOutboxRelayStatus() {
+        return outboxRelayStatus();
+    }
+
+    // Holds events in the outbox, e.g. to drain consumers before a topic or partitioning change
+    @PostMapping("/outbox/pause")
+    public ResponseEntity<OutboxRelayStatus> pauseOutboxRelay() {
+        log.info("REST request to pause the outbox relay");
+        outboxRelay.ifAvailable(OutboxRelay::pause);
+        return outboxRelayStatus();
+    }
+
+    @PostMapping("/outbox/resume")
+    public ResponseEntity<OutboxRelayStatus> resumeOutboxRelay() {
+        log.info("REST request to resume the outbox relay");
+        outboxRelay.ifAvailable(OutboxRelay::resume);
+        return outboxRelayStatus();
+    }
+
+    @GetMapping("/reconciliation/latest")
+    public ResponseEntity<ReconciliationReport> getLatestReconciliation() {
+        log.info("REST request to get the latest reconciliation report");
+        return reconciliationService.getLatestReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<OutboxRelayStatus> outboxRelayStatus() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        if (relay == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(OutboxRelayStatus.builder()
+                .paused(relay.isPaused())
+                .backlog(relay.getBacklog())
+                .build());
+    }
+}
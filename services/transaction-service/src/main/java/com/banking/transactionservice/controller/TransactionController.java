@@ -1,15 +1,27 @@
 package com.banking.transactionservice.controller;
 
+import com.banking.transactionservice.dto.BatchTransactionRequest;
+import com.banking.transactionservice.dto.BatchTransactionResponse;
+import com.banking.transactionservice.dto.ReversalReport;
+import com.banking.transactionservice.dto.ReversalRequest;
+import com.banking.transactionservice.dto.TransactionPage;
 import com.banking.transactionservice.dto.TransactionRequest;
 import com.banking.transactionservice.dto.TransactionResponse;
+import com.banking.transactionservice.model.Transaction;
 import com.banking.transactionservice.model.TransactionEvent;
+import com.banking.transactionservice.service.IdempotencyService;
+import com.banking.transactionservice.service.TransactionReversalService;
 import com.banking.transactionservice.service.TransactionService;
+import com.banking.transactionservice.service.TransactionStatusStream;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,13 +31,58 @@ import java.util.List;
 @Slf4j
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionReversalService reversalService;
+    private final TransactionStatusStream statusStream;
 
     @PostMapping
-    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> createTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("REST request to create transaction: {}", request.getType());
-        TransactionResponse response = transactionService.createTransaction(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        TransactionResponse response;
+        boolean replayed = false;
+        if (idempotencyKey != null) {
+            IdempotencyService.Result result = idempotencyService.createTransaction(request, idempotencyKey);
+            response = result.response();
+            replayed = result.replayed();
+        } else {
+            response = transactionService.createTransaction(request);
+        }
+
+        // PENDING was handed to the async pipeline; PROCESSING is left for recovery to settle
+        HttpStatus status = response.getStatus() == Transaction.TransactionStatus.PENDING
+                || response.getStatus() == Transaction.TransactionStatus.PROCESSING
+                ? HttpStatus.ACCEPTED
+                : HttpStatus.CREATED;
+        return ResponseEntity.status(status)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(replayed))
+                .body(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> createTransactionBatch(@Valid @RequestBody BatchTransactionRequest request) {
+        log.info("REST request to create transaction batch with {} items", request.getTransactions().size());
+        BatchTransactionResponse response = transactionService.createTransactionBatch(request);
+
+        // Items are PENDING when handed to the async pipeline; with it off they come back processed,
+        // except PROCESSING ones left for recovery
+        boolean pending = response.getResults().stream()
+                .anyMatch(result -> result.getStatus() == Transaction.TransactionStatus.PENDING
+                        || result.getStatus() == Transaction.TransactionStatus.PROCESSING);
+        return new ResponseEntity<>(response, pending ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
+    }
+
+    // Gives back the money of COMPLETED transactions picked by id or filter; safe to repeat
+    @PostMapping("/reversals")
+    public ResponseEntity<ReversalReport> reverseTransactions(@Valid @RequestBody ReversalRequest request) {
+        log.info("REST request to reverse transactions: {}", request);
+        ReversalReport report = reversalService.reverse(request);
+        return ResponseEntity.ok(report);
     }
 
     @GetMapping("/{id}")
@@ -42,6 +99,15 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    // Server-sent "status" events: the current state, then each change until the transaction is final
+    @GetMapping("/txn/{transactionId}/status-stream")
+    public ResponseEntity<SseEmitter> streamTransactionStatus(@PathVariable String transactionId) {
+        log.info("REST request to stream status of transaction: {}", transactionId);
+        return statusStream.subscribe(transactionId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/account/{accountNumber}")
     public ResponseEntity<List<TransactionResponse>> getTransactionsByAccount(@PathVariable String accountNumber) {
         log.info("REST request to get transactions for account: {}", accountNumber);
@@ -49,6 +115,34 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/account/{accountNumber}/page")
+    public ResponseEntity<TransactionPage> getTransactionPageByAccount(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get transaction page for account: {}", accountNumber);
+        TransactionPage page = transactionService.getTransactionPageByAccount(accountNumber, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/account/{accountNumber}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByAccount(@PathVariable String accountNumber) {
+        log.info("REST request to export transactions for account: {}", accountNumber);
+        StreamingResponseBody body = out -> transactionService.exportTransactionsByAccount(accountNumber, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<TransactionPage> getTransactionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get transaction page");
+        TransactionPage page = transactionService.getTransactionPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping
     public ResponseEntity<List<TransactionResponse>> getAllTransactions() {
         log.info("REST request to get all transactions");
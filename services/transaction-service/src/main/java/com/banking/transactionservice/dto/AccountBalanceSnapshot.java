@@ -0,0 +1,19 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One account of account-service GET /accounts/balances
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceSnapshot {
+
+    private String accountNumber;
+    // Null for accounts created before account-service recorded opening balances
+    private BigDecimal openingBalance;
+    private BigDecimal balance;
+}
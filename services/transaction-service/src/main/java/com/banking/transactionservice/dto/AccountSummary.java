@@ -0,0 +1,17 @@
+package com.banking.transactionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The fields of account-service GET /accounts/number/{accountNumber} this service uses
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AccountSummary {
+
+    private String accountNumber;
+    private String currency;
+}
@@ -0,0 +1,22 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Body of account-service POST /accounts/transfers
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransferRequest {
+
+    private String fromAccount;
+    private String toAccount;
+    private BigDecimal amount;
+    // Account-service skips a reference it has already applied
+    private String reference;
+    // Amount credited to toAccount in its own currency; null = amount
+    private BigDecimal creditAmount;
+}
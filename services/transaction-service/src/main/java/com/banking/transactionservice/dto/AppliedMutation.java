@@ -0,0 +1,20 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Entry of account-service POST /accounts/mutations/lookup: a reference applied to an account
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedMutation {
+
+    private String reference;
+    private String accountNumber;
+    private BigDecimal amount;
+    private LocalDateTime appliedAt;
+}
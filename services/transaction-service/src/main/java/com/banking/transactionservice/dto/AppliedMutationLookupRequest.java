@@ -0,0 +1,16 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Body of account-service POST /accounts/mutations/lookup, at most 1000 references
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedMutationLookupRequest {
+
+    private List<String> references;
+}
@@ -0,0 +1,26 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivalReport {
+
+    private LocalDateTime startedAt;
+    // Finished transactions created before this were archived
+    private LocalDateTime cutoff;
+    private long segments;
+    private long segmentBytes;
+    // Written to a segment and removed from the hot tables
+    private long archived;
+    // Written to a segment but left in the tables, having changed or gone since they were read
+    private long skipped;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceDiscrepancy {
+
+    private String accountNumber;
+    private Reason reason;
+    // Opening balance plus the net of the account's completed transactions
+    private BigDecimal expectedBalance;
+    // Null when account-service has no such account
+    private BigDecimal actualBalance;
+    private BigDecimal difference;
+    private long transactions;
+
+    public enum Reason {
+        BALANCE_MISMATCH,
+        ACCOUNT_NOT_FOUND
+    }
+}
@@ -0,0 +1,25 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// One entry of account-service POST /accounts/balances/batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMutation {
+
+    private String reference;
+    private String accountNumber;
+    private BigDecimal amount;
+    // Set for a netted change, whose amount is the sum of the parts
+    private List<BalanceMutationPart> parts;
+
+    public BalanceMutation(String reference, String accountNumber, BigDecimal amount) {
+        this(reference, accountNumber, amount, null);
+    }
+}
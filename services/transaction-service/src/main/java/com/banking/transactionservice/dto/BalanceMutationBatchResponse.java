@@ -0,0 +1,19 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceMutationBatchResponse {
+
+    private int applied;
+    private int rejected;
+    private List<BalanceMutationResult> results;
+}
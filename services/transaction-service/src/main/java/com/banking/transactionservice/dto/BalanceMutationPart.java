@@ -0,0 +1,17 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One of the changes netted into a BalanceMutation, recorded by account-service under its own reference
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMutationPart {
+
+    private String reference;
+    private BigDecimal amount;
+}
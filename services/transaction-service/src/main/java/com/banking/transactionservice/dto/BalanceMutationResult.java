@@ -0,0 +1,27 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BalanceMutationResult {
+
+    private String reference;
+    private String accountNumber;
+    private Status status;
+    private BigDecimal balance;
+    private String message;
+
+    public enum Status {
+        APPLIED,
+        ACCOUNT_NOT_FOUND,
+        INSUFFICIENT_FUNDS
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.transactionservice.dto;
+
+import com.banking.transactionservice.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemResult {
+
+    private int index;
+    private String transactionId;
+    private Transaction.TransactionStatus status; // null when the item was rejected
+    private List<String> errors;
+}
@@ -0,0 +1,22 @@
+package com.banking.transactionservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionRequest {
+
+    @Size(max = 50, message = "Batch ID cannot exceed 50 characters")
+    private String batchId; // Optional, generated when absent
+
+    // Items are validated one by one so a bad row only rejects itself
+    @NotEmpty(message = "At least one transaction is required")
+    private List<TransactionRequest> transactions;
+}
@@ -0,0 +1,17 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxRelayStatus {
+
+    private boolean paused;
+    // Events waiting in the outbox as of the relay's last run
+    private long backlog;
+}
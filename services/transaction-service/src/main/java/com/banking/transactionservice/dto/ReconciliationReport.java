@@ -0,0 +1,30 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+
+    private LocalDateTime startedAt;
+    private int partitions;
+    private long accounts;
+    private long transactions;
+    private long matched;
+    // Accounts with transactions in flight while they were checked; neither matched nor discrepant
+    private long unsettled;
+    // Accounts without a recorded opening balance
+    private long unverifiable;
+    private long discrepancies;
+    // First discrepancies, capped like ReplayReport's mismatches; all of them are logged
+    private List<BalanceDiscrepancy> discrepancyDetails;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecoveryReport {
+
+    private LocalDateTime startedAt;
+    // Rows created before this were treated as stuck
+    private LocalDateTime cutoff;
+    private long scanned;
+    // Still queued in this instance's pipeline, so left alone
+    private long inFlight;
+    // Rows behind their event stream, rebuilt from the log
+    private long rebuilt;
+    private long resumed;
+    private long failed;
+    private long reversed;
+    private long errors;
+    private long durationMs;
+}
@@ -0,0 +1,26 @@
+package com.banking.transactionservice.dto;
+
+import com.banking.transactionservice.service.TransactionReplayService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplayReport {
+
+    private TransactionReplayService.Mode mode;
+    private long streams;
+    private long eventsApplied;
+    private long snapshotsWritten;
+    private long mismatches;
+    private long rowsRebuilt;
+    // First mismatching streams, capped so a badly drifted table doesn't produce a huge response
+    private List<String> mismatchedTransactionIds;
+    private long durationMs;
+}
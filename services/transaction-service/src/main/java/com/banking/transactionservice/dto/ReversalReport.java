@@ -0,0 +1,30 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReversalReport {
+
+    private LocalDateTime startedAt;
+    private long matched;
+    // Compensated and now REVERSED, including any a concurrent request finished first
+    private long reversed;
+    // Already REVERSED when selected
+    private long alreadyReversed;
+    // PENDING, PROCESSING or FAILED: no money moved that could be given back
+    private long notCompleted;
+    // Left COMPLETED; repeating the request retries them
+    private long failed;
+    // The first failures, up to a fixed limit
+    private List<ReversalFailure> failures;
+    private long durationMs;
+}
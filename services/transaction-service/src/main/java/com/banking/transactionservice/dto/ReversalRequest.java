@@ -0,0 +1,34 @@
+package com.banking.transactionservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Selects the transactions to reverse; the given criteria are combined, and at least one is required
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReversalRequest {
+
+    private String transactionId;
+
+    // Matches either side of a transaction
+    private String accountNumber;
+
+    private String batchId;
+
+    // Creation time range: from inclusive, to exclusive
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    @NotBlank(message = "Reason is required")
+    @Size(max = 500, message = "Reason cannot exceed 500 characters")
+    private String reason;
+}
@@ -0,0 +1,24 @@
+package com.banking.transactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StreamReplayResult {
+
+    private String transactionId;
+    private long snapshotVersion;
+    private int eventsApplied;
+    private long version;
+    private boolean consistent;
+    private List<String> differences;
+    private boolean rowRebuilt;
+    private boolean snapshotWritten;
+}
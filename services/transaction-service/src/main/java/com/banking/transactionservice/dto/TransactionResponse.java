@@ -22,6 +22,12 @@ public class TransactionResponse {
     private Transaction.TransactionType type;
     private BigDecimal amount;
     private String currency;
+    // Rate and amount applied to each side's account, in its currency; null until executed
+    private BigDecimal fromRate;
+    private BigDecimal fromAccountAmount;
+    private BigDecimal toRate;
+    private BigDecimal toAccountAmount;
+    private Long fxRateVersion;
     private Transaction.TransactionStatus status;
     private String description;
     private String failureReason;
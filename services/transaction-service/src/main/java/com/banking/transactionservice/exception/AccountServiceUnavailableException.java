@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class AccountServiceUnavailableException extends RuntimeException {
+
+    public AccountServiceUnavailableException(String message) {
+        super(message);
+    }
+}
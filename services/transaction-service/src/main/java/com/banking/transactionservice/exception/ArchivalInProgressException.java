@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class ArchivalInProgressException extends RuntimeException {
+
+    public ArchivalInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.transactionservice.exception;
+
+// A balance change reached account-service but no verdict came back; recovery settles the transaction
+public class BalanceChangeOutcomeUnknownException extends RuntimeException {
+
+    public BalanceChangeOutcomeUnknownException(String message) {
+        super(message);
+    }
+
+    public BalanceChangeOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
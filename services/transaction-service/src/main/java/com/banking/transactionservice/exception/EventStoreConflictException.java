@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class EventStoreConflictException extends RuntimeException {
+
+    public EventStoreConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
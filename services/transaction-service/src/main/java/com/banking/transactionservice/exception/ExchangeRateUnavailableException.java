@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class ExchangeRateUnavailableException extends RuntimeException {
+
+    public ExchangeRateUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.transactionservice.exception;
+
+// The Idempotency-Key was already used with a different request
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
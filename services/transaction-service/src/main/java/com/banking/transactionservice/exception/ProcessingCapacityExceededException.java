@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class ProcessingCapacityExceededException extends RuntimeException {
+
+    public ProcessingCapacityExceededException(String message) {
+        super(message);
+    }
+}
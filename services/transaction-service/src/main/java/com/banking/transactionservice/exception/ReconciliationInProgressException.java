@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class ReconciliationInProgressException extends RuntimeException {
+
+    public ReconciliationInProgressException(String message) {
+        super(message);
+    }
+}
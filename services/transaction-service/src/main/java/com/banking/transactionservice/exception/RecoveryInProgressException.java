@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class RecoveryInProgressException extends RuntimeException {
+
+    public RecoveryInProgressException(String message) {
+        super(message);
+    }
+}
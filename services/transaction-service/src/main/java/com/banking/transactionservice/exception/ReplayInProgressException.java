@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class ReplayInProgressException extends RuntimeException {
+
+    public ReplayInProgressException(String message) {
+        super(message);
+    }
+}
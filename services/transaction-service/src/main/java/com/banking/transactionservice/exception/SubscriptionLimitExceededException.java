@@ -0,0 +1,8 @@
+package com.banking.transactionservice.exception;
+
+public class SubscriptionLimitExceededException extends RuntimeException {
+
+    public SubscriptionLimitExceededException(String message) {
+        super(message);
+    }
+}
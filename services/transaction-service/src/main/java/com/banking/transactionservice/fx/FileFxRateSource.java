@@ -0,0 +1,46 @@
+package com.banking.transactionservice.fx;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads rates from a properties file of {@code CODE=units per base unit} lines, e.g. {@code EUR=0.92}.
+ * The file is read again on every refresh, so editing a {@code file:} resource changes the rates
+ * without a restart.
+ */
+public class FileFxRateSource implements FxRateSource {
+
+    private final Resource file;
+
+    public FileFxRateSource(Resource file) {
+        this.file = file;
+    }
+
+    @Override
+    public Map<String, BigDecimal> load() {
+        Properties properties = new Properties();
+        try (InputStream in = file.getInputStream()) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read FX rates from " + file.getDescription(), e);
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String code : properties.stringPropertyNames()) {
+            String value = properties.getProperty(code).trim();
+            try {
+                rates.put(code.trim(), new BigDecimal(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid FX rate for " + code + " in " + file.getDescription() + ": " + value);
+            }
+        }
+        return rates;
+    }
+}
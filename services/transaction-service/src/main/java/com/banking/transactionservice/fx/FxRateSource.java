@@ -0,0 +1,14 @@
+package com.banking.transactionservice.fx;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Where {@link FxRateTable} gets its rates: units of each currency per one unit of a common base
+ * currency, keyed by ISO 4217 code (the base itself quoted as 1). Only the table's refresh calls it,
+ * never a transaction, so an implementation is free to read files or call a rate provider.
+ */
+public interface FxRateSource {
+
+    Map<String, BigDecimal> load();
+}
@@ -0,0 +1,58 @@
+package com.banking.transactionservice.fx;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * The FX rates transactions convert with. Readers take {@link #current()} - a volatile read - and
+ * look rates up in that snapshot; a refresh loads the source in the background and publishes a
+ * whole new snapshot, so a transfer converts both of its sides with the same version.
+ *
+ * A version only changes when the rates do, and versions are seeded from the clock so they keep
+ * increasing across restarts. If a refresh fails the previous snapshot stays in use.
+ */
+@Component
+@Slf4j
+public class FxRateTable {
+
+    private final FxRateSource source;
+    private volatile FxRates current = FxRates.EMPTY;
+
+    public FxRateTable(FxRateSource source, MeterRegistry meterRegistry) {
+        this.source = source;
+        refresh();
+        Gauge.builder("transaction.fx.rates.version", this, table -> table.current.version())
+                .description("Version of the FX rate snapshot in use")
+                .register(meterRegistry);
+        Gauge.builder("transaction.fx.rates.currencies", this, table -> table.current.currencies())
+                .description("Currencies in the FX rate snapshot in use")
+                .register(meterRegistry);
+    }
+
+    public FxRates current() {
+        return current;
+    }
+
+    @Scheduled(initialDelayString = "${transaction.fx.refresh-interval-ms:60000}",
+            fixedDelayString = "${transaction.fx.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        FxRates previous = current;
+        try {
+            Map<String, BigDecimal> perBase = source.load();
+            if (previous.loadedAt() != null && previous.quotes(perBase)) {
+                return;
+            }
+            FxRates updated = FxRates.of(Math.max(previous.version() + 1, System.currentTimeMillis()), perBase);
+            current = updated;
+            log.info("Loaded FX rates version {} with {} currencies", updated.version(), updated.currencies());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh FX rates, keeping version {}: {}", previous.version(), e.getMessage());
+        }
+    }
+}
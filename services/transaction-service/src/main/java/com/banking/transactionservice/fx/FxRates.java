@@ -0,0 +1,146 @@
+package com.banking.transactionservice.fx;
+
+import com.banking.transactionservice.exception.ExchangeRateUnavailableException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One immutable version of the rate table. Every cross rate is worked out when the snapshot is
+ * built, so {@link #rate} is two array reads: the currency codes are packed into an index into a
+ * slot table, and the pair of slots into the cross-rate matrix. A lookup allocates nothing and
+ * needs no locking; {@link FxRateTable} swaps in a new snapshot rather than changing this one.
+ */
+public final class FxRates {
+
+    // Cross rates are stored at this scale; applied amounts are rounded to cents afterwards
+    static final int RATE_SCALE = 10;
+    private static final int CODES = 26 * 26 * 26;
+
+    static final FxRates EMPTY = new FxRates(0, null, Map.of(), new short[0], new BigDecimal[0], 0);
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<String, BigDecimal> quotes;
+    // Slot + 1 of each currency by its packed code; 0 = not quoted
+    private final short[] slots;
+    // Units of the currency in slot j per unit of the currency in slot i, at i * currencies + j
+    private final BigDecimal[] crossRates;
+    private final int currencies;
+
+    private FxRates(long version, Instant loadedAt, Map<String, BigDecimal> quotes,
+                    short[] slots, BigDecimal[] crossRates, int currencies) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.quotes = quotes;
+        this.slots = slots;
+        this.crossRates = crossRates;
+        this.currencies = currencies;
+    }
+
+    /**
+     * Builds a snapshot from units of each currency per unit of a common base. Codes are
+     * case-insensitive; a code that isn't three letters or a rate that isn't positive is rejected.
+     */
+    static FxRates of(long version, Map<String, BigDecimal> perBase) {
+        Map<String, BigDecimal> quotes = normalize(perBase);
+        if (quotes.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many currencies: " + quotes.size());
+        }
+
+        List<String> codes = new ArrayList<>(quotes.keySet());
+        Collections.sort(codes);
+        int currencies = codes.size();
+        short[] slots = new short[CODES];
+        BigDecimal[] crossRates = new BigDecimal[currencies * currencies];
+        for (int i = 0; i < currencies; i++) {
+            slots[pack(codes.get(i))] = (short) (i + 1);
+            BigDecimal from = quotes.get(codes.get(i));
+            for (int j = 0; j < currencies; j++) {
+                crossRates[i * currencies + j] = i == j
+                        ? BigDecimal.ONE
+                        : quotes.get(codes.get(j)).divide(from, RATE_SCALE, RoundingMode.HALF_EVEN);
+            }
+        }
+        return new FxRates(version, Instant.now(), Collections.unmodifiableMap(quotes), slots, crossRates, currencies);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // Null for the empty table in place before the first successful load
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public int currencies() {
+        return currencies;
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from}; exactly one when the codes match, whether or not
+     * the table quotes them.
+     */
+    public BigDecimal rate(String from, String to) {
+        if (from.equalsIgnoreCase(to)) {
+            return BigDecimal.ONE;
+        }
+        int fromSlot = slot(from);
+        int toSlot = slot(to);
+        if (fromSlot < 0 || toSlot < 0) {
+            throw new ExchangeRateUnavailableException(
+                    "No exchange rate from " + from + " to " + to + " in FX rates version " + version);
+        }
+        return crossRates[fromSlot * currencies + toSlot];
+    }
+
+    // Whether the quotes are those this snapshot was built from, ignoring trailing zeros and code case
+    boolean quotes(Map<String, BigDecimal> perBase) {
+        return quotes.equals(normalize(perBase));
+    }
+
+    private int slot(String code) {
+        int packed = pack(code);
+        return packed < 0 || slots.length == 0 ? -1 : slots[packed] - 1;
+    }
+
+    // Three letters in either case, base 26; -1 for anything else
+    private static int pack(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = (code.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            packed = packed * 26 + letter;
+        }
+        return packed;
+    }
+
+    private static Map<String, BigDecimal> normalize(Map<String, BigDecimal> perBase) {
+        Map<String, BigDecimal> quotes = new HashMap<>();
+        perBase.forEach((code, rate) -> {
+            if (pack(code) < 0) {
+                throw new IllegalArgumentException("Not a currency code: " + code);
+            }
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + code + " must be positive: " + rate);
+            }
+            if (quotes.put(code.toUpperCase(Locale.ROOT), rate.stripTrailingZeros()) != null) {
+                throw new IllegalArgumentException("Currency quoted twice: " + code);
+            }
+        });
+        return quotes;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.transactionservice.kafka;
+
+/**
+ * What transaction events are keyed by, and so which records share a partition and are consumed
+ * in order.
+ */
+public enum EventPartitioning {
+    // Only the events of one transaction are ordered; one account's events spread over all partitions
+    TRANSACTION,
+    // All events for a source account share a partition, so consumers can scale out and still see each account in order.
+    // A transfer is keyed by its source account only, so it is not ordered with the destination account's events
+    ACCOUNT
+}
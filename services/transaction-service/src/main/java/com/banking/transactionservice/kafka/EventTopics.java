@@ -0,0 +1,51 @@
+package com.banking.transactionservice.kafka;
+
+import com.banking.transactionservice.model.OutboxEvent;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka topics behind the outbox's logical topic names, their partition counts, and how records
+ * are keyed. Topic and key are resolved when {@link OutboxRelay} sends a record rather than when
+ * the event is queued, so after a restart with new settings, events still waiting in the outbox
+ * follow the new layout too. That is what the migration in the README relies on.
+ */
+@Component
+@Getter
+public class EventTopics {
+
+    private final String createdTopic;
+    private final String completedTopic;
+    private final int partitions;
+    private final int replicas;
+    private final EventPartitioning partitioning;
+
+    public EventTopics(@Value("${transaction.events.topics.created:transaction-created}") String createdTopic,
+                       @Value("${transaction.events.topics.completed:transaction-completed}") String completedTopic,
+                       @Value("${transaction.events.topics.partitions:3}") int partitions,
+                       @Value("${transaction.events.topics.replicas:1}") int replicas,
+                       @Value("${transaction.events.partitioning:TRANSACTION}") EventPartitioning partitioning) {
+        this.createdTopic = createdTopic;
+        this.completedTopic = completedTopic;
+        this.partitions = partitions;
+        this.replicas = replicas;
+        this.partitioning = partitioning;
+    }
+
+    public String resolve(String logicalTopic) {
+        return switch (logicalTopic) {
+            case TransactionEventProducer.TRANSACTION_CREATED_TOPIC -> createdTopic;
+            case TransactionEventProducer.TRANSACTION_COMPLETED_TOPIC -> completedTopic;
+            default -> logicalTopic;
+        };
+    }
+
+    // Rows queued before account keys were recorded fall back to the transaction key
+    public String key(OutboxEvent event) {
+        if (partitioning == EventPartitioning.ACCOUNT && event.getAccountKey() != null) {
+            return event.getAccountKey();
+        }
+        return event.getMessageKey();
+    }
+}
@@ -0,0 +1,278 @@
+package com.banking.transactionservice.kafka;
+
+import com.banking.common.event.codec.EventHeaders;
+import com.banking.transactionservice.model.OutboxEvent;
+import com.banking.transactionservice.model.OutboxRelayLock;
+import com.banking.transactionservice.repository.OutboxEventRepository;
+import com.banking.transactionservice.repository.OutboxRelayLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to Kafka. Each batch is sent without waiting between records so the
+ * producer can pack them into large requests, then the acks are collected in id order and the
+ * acknowledged prefix is deleted, which is the relay's checkpoint. Anything after the first
+ * failure stays in the table and is retried on the next run (at-least-once delivery).
+ *
+ * Instances sharing the database take turns rather than relaying the same rows: before each batch
+ * the relay takes or renews a lease on the {@link OutboxRelayLock} row, in a short transaction that
+ * also reads the batch, and an instance that finds the lease held by another skips the run. No DB
+ * transaction or connection is held while the batch is sent; the acknowledged ids are deleted
+ * afterwards in their own transaction. Claiming individual rows instead would let two instances
+ * publish different events of one key at once and break per-key order. A relay that dies keeps the
+ * lease until {@code lease-ms} runs out, so that must exceed {@code send-timeout-ms}, the longest a
+ * batch waits for its acks.
+ *
+ * The relay can be paused; events then wait in the outbox while the API keeps accepting work,
+ * which is how consumers are drained before a topic or partitioning change.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LOCK_NAME = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventTopics eventTopics;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long sendTimeoutMs;
+    private final long leaseMs;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean leaseHeld;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicBoolean paused;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxRelayLockRepository lockRepository,
+                       PlatformTransactionManager transactionManager,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       EventTopics eventTopics,
+                       MeterRegistry meterRegistry,
+                       @Value("${transaction.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${transaction.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${transaction.outbox.relay.send-timeout-ms:30000}") long sendTimeoutMs,
+                       @Value("${transaction.outbox.relay.lease-ms:60000}") long leaseMs,
+                       @Value("${transaction.outbox.relay.start-paused:false}") boolean startPaused) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventTopics = eventTopics;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeoutMs = sendTimeoutMs;
+        if (leaseMs <= sendTimeoutMs) {
+            throw new IllegalArgumentException("transaction.outbox.relay.lease-ms (" + leaseMs
+                    + ") must exceed send-timeout-ms (" + sendTimeoutMs + ")");
+        }
+        this.leaseMs = leaseMs;
+        this.paused = new AtomicBoolean(startPaused);
+        if (startPaused) {
+            log.warn("Outbox relay starts paused; events are held until it is resumed");
+        }
+
+        this.publishedCounter = Counter.builder("transaction.outbox.published")
+                .description("Outbox events acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("transaction.outbox.failures")
+                .description("Outbox events that failed to publish and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("transaction.outbox.batch")
+                .description("Time to send and acknowledge one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("transaction.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("transaction.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age in seconds of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun && !paused.get(); i++) {
+            // Null when another instance holds the lease
+            List<OutboxEvent> batch = transactionTemplate.execute(status -> acquireLease()
+                    ? outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize))
+                    : null);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            int published = batchTimer.record(() -> publish(batch));
+            if (published < batchSize) {
+                break;
+            }
+        }
+        // Released here rather than in pause() so it never happens while a batch is still being sent
+        if (paused.get()) {
+            releaseLease();
+        }
+        updateLagMetrics();
+    }
+
+    // Takes or renews the lease; the row lock only lasts for the calling transaction
+    private boolean acquireLease() {
+        OutboxRelayLock lock = lockRepository.tryLock(LOCK_NAME).orElse(null);
+        if (lock == null) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean heldByOther = lock.getOwner() != null && !lock.getOwner().equals(instanceId)
+                && lock.getLeaseUntil() != null && lock.getLeaseUntil().isAfter(now);
+        if (heldByOther) {
+            return false;
+        }
+        lock.setOwner(instanceId);
+        lock.setLeaseUntil(now.plus(Duration.ofMillis(leaseMs)));
+        leaseHeld = true;
+        return true;
+    }
+
+    // Lets another instance take over straight away instead of waiting for the lease to run out
+    @PreDestroy
+    public void releaseLease() {
+        if (!leaseHeld) {
+            return;
+        }
+        leaseHeld = false;
+        transactionTemplate.executeWithoutResult(status -> lockRepository.findById(LOCK_NAME)
+                .filter(lock -> instanceId.equals(lock.getOwner()))
+                .ifPresent(lock -> {
+                    lock.setOwner(null);
+                    lock.setLeaseUntil(null);
+                }));
+    }
+
+    // Instances race to insert the lock row on first start; one insert wins and the rest see the row
+    @EventListener(ApplicationReadyEvent.class)
+    public void createLock() {
+        if (lockRepository.existsById(LOCK_NAME)) {
+            return;
+        }
+        try {
+            lockRepository.saveAndFlush(new OutboxRelayLock(LOCK_NAME, null, null));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox relay lock row was created by another instance");
+        }
+    }
+
+    public void pause() {
+        if (paused.compareAndSet(false, true)) {
+            log.info("Outbox relay paused");
+        }
+    }
+
+    public void resume() {
+        if (paused.compareAndSet(true, false)) {
+            log.info("Outbox relay resumed");
+        }
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    public long getBacklog() {
+        return backlog.get();
+    }
+
+    private int publish(List<OutboxEvent> batch) {
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(batch.size());
+        try {
+            for (OutboxEvent event : batch) {
+                futures.add(kafkaTemplate.send(toRecord(event)));
+            }
+            kafkaTemplate.flush();
+        } catch (Exception e) {
+            // Synchronous failure (e.g. metadata unavailable): the rest of the batch was never handed over
+            log.error("Failed to hand outbox event {} to the producer", batch.get(futures.size()).getId(), e);
+        }
+
+        // Checkpoint only the contiguous acknowledged prefix so per-key order is preserved on retry;
+        // the whole batch shares one deadline so it can't outlast the lease
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failedCounter.increment(futures.size() - i);
+                log.error("Failed to publish outbox event {} to {}, retrying from here on next run",
+                        batch.get(i).getId(), eventTopics.resolve(batch.get(i).getTopic()), e);
+                break;
+            }
+        }
+
+        if (futures.size() < batch.size()) {
+            failedCounter.increment(batch.size() - futures.size());
+        }
+
+        if (!acknowledged.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            publishedCounter.increment(acknowledged.size());
+            log.debug("Published {} outbox events", acknowledged.size());
+        }
+
+        // A partial batch means we hit a failure; don't hammer the broker in the same run
+        return acknowledged.size() == batch.size() ? acknowledged.size() : 0;
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record =
+                new ProducerRecord<>(eventTopics.resolve(event.getTopic()), eventTopics.key(event), event.getPayload());
+        record.headers()
+                .add(EventHeaders.EVENT_TYPE, event.getEventType().getBytes(StandardCharsets.UTF_8))
+                .add(EventHeaders.CONTENT_TYPE, event.getContentType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private void updateLagMetrics() {
+        backlog.set(outboxEventRepository.count());
+        lagMillis.set(outboxEventRepository.findFirstByOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
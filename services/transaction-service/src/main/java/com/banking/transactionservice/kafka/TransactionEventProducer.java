@@ -1,42 +1,81 @@
 package com.banking.transactionservice.kafka;
 
-import com.banking.transactionservice.event.TransactionCompletedEvent;
-import com.banking.transactionservice.event.TransactionCreatedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+import com.banking.common.event.codec.EventFormat;
+import com.banking.common.event.codec.TransactionEventCodec;
+import com.banking.transactionservice.model.OutboxEvent;
+import com.banking.transactionservice.repository.OutboxEventRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes events to the transactional outbox; {@link OutboxRelay} ships them to Kafka after commit.
+ * Must be called inside the DB transaction that changes the transaction, so a rollback drops the
+ * event along with the state change.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TransactionEventProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionEventCodec eventCodec;
+    private final EventFormat eventFormat;
+
+    public static final String TRANSACTION_CREATED_TOPIC = "transaction-created";
+    public static final String TRANSACTION_COMPLETED_TOPIC = "transaction-completed";
 
-    private static final String TRANSACTION_CREATED_TOPIC = "transaction-created";
-    private static final String TRANSACTION_COMPLETED_TOPIC = "transaction-completed";
+    // JSON is the fallback for consumers that can't read the binary format
+    public TransactionEventProducer(OutboxEventRepository outboxEventRepository,
+                                    TransactionEventCodec eventCodec,
+                                    @Value("${transaction.events.format:BINARY}") EventFormat eventFormat) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventCodec = eventCodec;
+        this.eventFormat = eventFormat;
+    }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishTransactionCreated(TransactionCreatedEvent event) {
-        try {
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(TRANSACTION_CREATED_TOPIC, event.getTransactionId(), eventJson);
-            log.info("Published TransactionCreatedEvent: {}", event.getTransactionId());
-        } catch (JsonProcessingException e) {
-            log.error("Error publishing TransactionCreatedEvent", e);
+        enqueue(TRANSACTION_CREATED_TOPIC, event.getTransactionId(), event.getFromAccount(), event);
+        log.info("Queued TransactionCreatedEvent: {}", event.getTransactionId());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishTransactionsCreated(List<TransactionCreatedEvent> events) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (TransactionCreatedEvent event : events) {
+            outboxEvents.add(toOutboxEvent(TRANSACTION_CREATED_TOPIC, event.getTransactionId(), event.getFromAccount(), event));
         }
+        outboxEventRepository.saveAll(outboxEvents);
+        log.info("Queued {} TransactionCreatedEvents", events.size());
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishTransactionCompleted(TransactionCompletedEvent event) {
-        try {
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(TRANSACTION_COMPLETED_TOPIC, event.getTransactionId(), eventJson);
-            log.info("Published TransactionCompletedEvent: {}", event.getTransactionId());
-        } catch (JsonProcessingException e) {
-            log.error("Error publishing TransactionCompletedEvent", e);
-        }
+        enqueue(TRANSACTION_COMPLETED_TOPIC, event.getTransactionId(), event.getFromAccount(), event);
+        log.info("Queued TransactionCompletedEvent: {}", event.getTransactionId());
+    }
+
+    private void enqueue(String topic, String transactionId, String accountNumber, Object event) {
+        outboxEventRepository.save(toOutboxEvent(topic, transactionId, accountNumber, event));
+    }
+
+    // Topic is the logical name; EventTopics maps it to the configured topic when the relay sends
+    OutboxEvent toOutboxEvent(String topic, String transactionId, String accountNumber, Object event) {
+        return OutboxEvent.builder()
+                .aggregateId(transactionId)
+                .topic(topic)
+                .messageKey(transactionId)
+                .accountKey(accountNumber)
+                .eventType(event.getClass().getSimpleName())
+                .contentType(eventFormat.getContentType())
+                .payload(eventCodec.encode(event, eventFormat))
+                .build();
     }
-}
\ No newline at end of file
+}
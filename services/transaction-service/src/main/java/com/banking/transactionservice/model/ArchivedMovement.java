@@ -0,0 +1,37 @@
+package com.banking.transactionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Net money movement of an account's COMPLETED transactions that were moved to the archive,
+// so reconciliation still accounts for them
+@Entity
+@Table(name = "archived_movements")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedMovement {
+
+    @Id
+    @Column(length = 20)
+    private String accountNumber;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal net = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long transactions;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
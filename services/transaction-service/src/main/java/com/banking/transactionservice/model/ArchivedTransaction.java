@@ -0,0 +1,7 @@
+package com.banking.transactionservice.model;
+
+import java.util.List;
+
+// One record of an archive segment: the final row and its stored (compact) event stream
+public record ArchivedTransaction(Transaction transaction, List<TransactionEvent> events) {
+}
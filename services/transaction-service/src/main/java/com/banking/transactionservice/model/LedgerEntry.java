@@ -0,0 +1,17 @@
+package com.banking.transactionservice.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a {@link Transaction} that move money, read by reconciliation without loading
+ * (or tracking) whole entities. {@code amount} is what was applied to the side being read, in
+ * that account's currency.
+ */
+public record LedgerEntry(String fromAccount,
+                          String toAccount,
+                          Transaction.TransactionType type,
+                          BigDecimal amount,
+                          Transaction.TransactionStatus status,
+                          LocalDateTime completedAt) {
+}
@@ -0,0 +1,54 @@
+package com.banking.transactionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // The relay publishes in id order. Ids are drawn from the sequence one at a time rather than pooled
+    // per instance, so an event written after another one committed (a transaction's COMPLETED after its
+    // CREATED) always gets the higher id, whichever instance writes it; inserts still JDBC-batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateId;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(length = 100)
+    private String messageKey;
+
+    // Source account; the record key instead of messageKey under account partitioning. A transfer's
+    // destination is not recorded, so only the debit side of a transfer is ordered per account
+    @Column(length = 20)
+    private String accountKey;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, length = 50)
+    private String contentType;
+
+    @Column(nullable = false, length = 65536)
+    private byte[] payload;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
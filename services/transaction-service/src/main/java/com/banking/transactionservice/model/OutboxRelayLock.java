@@ -0,0 +1,27 @@
+package com.banking.transactionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Lease on the outbox relay, so only one instance sharing the database publishes at a time
+@Entity
+@Table(name = "outbox_relay_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLock {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // Relay instance holding the lease, null when released
+    @Column(length = 36)
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+}
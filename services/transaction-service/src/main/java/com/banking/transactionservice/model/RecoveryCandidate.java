@@ -0,0 +1,13 @@
+package com.banking.transactionservice.model;
+
+import java.time.LocalDateTime;
+
+// What the recovery sweep needs of a stuck transaction, read without loading the entity
+public record RecoveryCandidate(Long id,
+                                String transactionId,
+                                String fromAccount,
+                                Transaction.TransactionType type,
+                                Transaction.TransactionStatus status,
+                                LocalDateTime createdAt,
+                                Long eventVersion) {
+}
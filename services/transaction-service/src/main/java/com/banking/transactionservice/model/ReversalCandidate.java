@@ -0,0 +1,17 @@
+package com.banking.transactionservice.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What bulk reversal needs of a matched transaction to compensate it, read without loading the entity
+public record ReversalCandidate(Long id,
+                                String transactionId,
+                                String fromAccount,
+                                String toAccount,
+                                Transaction.TransactionType type,
+                                // Applied to each side's account, in its currency
+                                BigDecimal fromAmount,
+                                BigDecimal toAmount,
+                                Transaction.TransactionStatus status,
+                                LocalDateTime createdAt) {
+}
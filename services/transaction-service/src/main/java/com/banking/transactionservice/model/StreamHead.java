@@ -0,0 +1,5 @@
+package com.banking.transactionservice.model;
+
+// Latest version of a transaction's event stream
+public record StreamHead(String transactionId, Long version) {
+}
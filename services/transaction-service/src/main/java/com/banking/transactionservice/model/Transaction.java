@@ -1,25 +1,41 @@
 package com.banking.transactionservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = {
+        // An Idempotency-Key is scoped to the account submitting it
+        @UniqueConstraint(name = "uk_transactions_idempotency_key", columnNames = {"fromAccount", "idempotencyKey"})
+}, indexes = {
+        @Index(name = "idx_transactions_batch_id", columnList = "batchId"),
+        // Back the keyset-paginated history queries in TransactionRepository
+        @Index(name = "idx_transactions_from_account_created", columnList = "fromAccount, createdAt, id"),
+        @Index(name = "idx_transactions_to_account_created", columnList = "toAccount, createdAt, id"),
+        @Index(name = "idx_transactions_created", columnList = "createdAt, id"),
+        // Lets the recovery sweep page through one status oldest first
+        @Index(name = "idx_transactions_status_created", columnList = "status, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Transaction {
 
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -41,6 +57,24 @@ public class Transaction {
     @Column(length = 3)
     private String currency = "USD";
 
+    // Set at execution: the rate from currency to each side's account currency and the amount applied
+    // there. Null on rows executed before conversion existed, whose amount was applied as is
+    @Column(precision = 19, scale = 10)
+    private BigDecimal fromRate;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal fromAccountAmount;
+
+    @Column(precision = 19, scale = 10)
+    private BigDecimal toRate;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal toAccountAmount;
+
+    // FX rate snapshot the rates came from; null when neither side needed converting
+    @Column
+    private Long fxRateVersion;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private TransactionStatus status;
@@ -51,6 +85,18 @@ public class Transaction {
     @Column(length = 500)
     private String failureReason;
 
+    // Set when the transaction was submitted through POST /transactions/batch
+    @Column(length = 50)
+    private String batchId;
+
+    // Client-supplied Idempotency-Key; the unique constraint settles concurrent retries
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request the key was first used with, so a reuse with another request is refused
+    @Column(length = 64)
+    private String idempotencyRequestHash;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -58,6 +104,40 @@ public class Transaction {
     @Column
     private LocalDateTime completedAt;
 
+    // Version of the last event appended to this transaction's event stream
+    @Column(nullable = false)
+    @Builder.Default
+    private Long eventVersion = 0L;
+
+    // State as of the last appended event, so the event store can record only what changed. Unset on a
+    // loaded row until it is first changed, so reads don't pay for a copy; without it the next event is full
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Transaction eventBaseline;
+
+    public void captureEventBaseline() {
+        eventBaseline = toBuilder().eventBaseline(null).build();
+    }
+
+    // Call before changing a row that may have been loaded rather than just appended to
+    public void ensureEventBaseline() {
+        if (eventBaseline == null) {
+            captureEventBaseline();
+        }
+    }
+
+    // Amount applied to fromAccount, in its currency
+    public BigDecimal appliedFromAmount() {
+        return fromAccountAmount != null ? fromAccountAmount : amount;
+    }
+
+    // Amount applied to toAccount, in its currency
+    public BigDecimal appliedToAmount() {
+        return toAccountAmount != null ? toAccountAmount : amount;
+    }
+
     public enum TransactionType {
         DEPOSIT,
         WITHDRAWAL,
@@ -10,15 +10,20 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transaction_events")
+@Table(name = "transaction_events", uniqueConstraints = {
+        // One event per (stream, version): a concurrent writer with a stale head fails here
+        @UniqueConstraint(name = "uk_transaction_events_stream_version", columnNames = {"transactionId", "version"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class TransactionEvent {
 
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_events_seq")
+    @SequenceGenerator(name = "transaction_events_seq", sequenceName = "transaction_events_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -27,13 +32,29 @@ public class TransactionEvent {
     @Column(nullable = false, length = 50)
     private String eventType;
 
+    // JSON of the full state (FULL) or only the fields changed since the previous version (DELTA);
+    // Base64 of the Deflate-compressed JSON when compressed
     @Column(nullable = false, columnDefinition = "TEXT")
     private String eventData;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private PayloadEncoding encoding = PayloadEncoding.FULL;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean compressed = false;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private Long version;
+
+    public enum PayloadEncoding {
+        FULL,
+        DELTA
+    }
 }
\ No newline at end of file
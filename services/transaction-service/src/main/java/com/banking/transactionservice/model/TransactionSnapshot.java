@@ -0,0 +1,34 @@
+package com.banking.transactionservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Folded state of one event stream up to a version; replays start here and apply only the tail
+@Entity
+@Table(name = "transaction_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSnapshot {
+
+    @Id
+    @Column(length = 50)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String stateData;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.banking.transactionservice.repository;
+
+import com.banking.transactionservice.model.ArchivedMovement;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedMovementRepository extends JpaRepository<ArchivedMovement, String> {
+
+    // Same range convention as the reconciliation ledger queries: from inclusive, to exclusive (null = open)
+    @Query("select m from ArchivedMovement m where m.accountNumber >= :from " +
+            "and (:to is null or m.accountNumber < :to)")
+    List<ArchivedMovement> findByAccountRange(@Param("from") String from, @Param("to") String to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from ArchivedMovement m where m.accountNumber in :accountNumbers order by m.accountNumber")
+    List<ArchivedMovement> lockByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+}
@@ -0,0 +1,25 @@
+package com.banking.transactionservice.repository;
+
+import com.banking.transactionservice.model.OutboxRelayLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxRelayLockRepository extends JpaRepository<OutboxRelayLock, String> {
+
+    // FOR UPDATE SKIP LOCKED: empty while another transaction holds the row, instead of waiting for it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select l from OutboxRelayLock l where l.name = :name")
+    Optional<OutboxRelayLock> tryLock(@Param("name") String name);
+}
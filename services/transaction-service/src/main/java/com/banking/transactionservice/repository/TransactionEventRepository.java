@@ -1,13 +1,43 @@
 package com.banking.transactionservice.repository;
 
+import com.banking.transactionservice.model.StreamHead;
 import com.banking.transactionservice.model.TransactionEvent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionEventRepository extends JpaRepository<TransactionEvent, Long> {
 
     List<TransactionEvent> findByTransactionIdOrderByVersionAsc(String transactionId);
-}
\ No newline at end of file
+
+    List<TransactionEvent> findByTransactionIdInOrderByTransactionIdAscVersionAsc(Collection<String> transactionIds);
+
+    List<TransactionEvent> findByTransactionIdAndVersionGreaterThanOrderByVersionAsc(String transactionId, Long version);
+
+    // Events past each stream's snapshot (all events for streams without one)
+    @Query("select e from TransactionEvent e left join TransactionSnapshot s on s.transactionId = e.transactionId " +
+            "where e.transactionId in :transactionIds and (s.version is null or e.version > s.version) " +
+            "order by e.transactionId, e.version")
+    List<TransactionEvent> findTailsAfterSnapshots(@Param("transactionIds") Collection<String> transactionIds);
+
+    // Latest version of each stream, read off the (transactionId, version) unique index
+    @Query("select new com.banking.transactionservice.model.StreamHead(e.transactionId, max(e.version)) " +
+            "from TransactionEvent e where e.transactionId in :transactionIds group by e.transactionId")
+    List<StreamHead> findStreamHeads(@Param("transactionIds") Collection<String> transactionIds);
+
+    // Walks stream ids along the (transactionId, version) unique index
+    @Query("select distinct e.transactionId from TransactionEvent e where e.transactionId > :after " +
+            "order by e.transactionId")
+    List<String> findStreamIdsAfter(@Param("after") String after, Limit limit);
+
+    @Modifying
+    @Query("delete from TransactionEvent e where e.transactionId in :transactionIds")
+    int deleteByTransactionIdIn(@Param("transactionIds") Collection<String> transactionIds);
+}
@@ -1,20 +1,159 @@
 package com.banking.transactionservice.repository;
 
+import com.banking.transactionservice.model.LedgerEntry;
+import com.banking.transactionservice.model.RecoveryCandidate;
+import com.banking.transactionservice.model.ReversalCandidate;
 import com.banking.transactionservice.model.Transaction;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    // Bulk reversal criteria; a null parameter matches everything
+    String REVERSAL_FILTER = "(:transactionId is null or t.transactionId = :transactionId) " +
+            "and (:batchId is null or t.batchId = :batchId) " +
+            "and (:account is null or t.fromAccount = :account or t.toAccount = :account) " +
+            "and (:from is null or t.createdAt >= :from) and (:to is null or t.createdAt < :to)";
+
+    String REVERSAL_CANDIDATE = "select new com.banking.transactionservice.model.ReversalCandidate(" +
+            "t.id, t.transactionId, t.fromAccount, t.toAccount, t.type, " +
+            "coalesce(t.fromAccountAmount, t.amount), coalesce(t.toAccountAmount, t.amount), t.status, t.createdAt) " +
+            "from Transaction t where ";
+
     Optional<Transaction> findByTransactionId(String transactionId);
 
-    List<Transaction> findByFromAccount(String fromAccount);
+    Optional<Transaction> findByFromAccountAndIdempotencyKey(String fromAccount, String idempotencyKey);
+
+    List<Transaction> findByTransactionIdIn(Collection<String> transactionIds);
+
+    // Archival re-reads the rows it is about to delete under lock, so a concurrent change or delete is seen;
+    // a rebuilding replay locks the rows it may overwrite before reading their event streams
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.transactionId in :transactionIds")
+    List<Transaction> lockByTransactionIdIn(@Param("transactionIds") Collection<String> transactionIds);
+
+    // Keyset pagination, newest first: the (createdAt, id) cursor is the last row of the previous page.
+    // An account's history is read as its sent and received sides, each walking its own (account, createdAt, id)
+    // index in order, and merged by the caller; received skips self-transfers, which sent already covers
+
+    @Query("select t from Transaction t where t.fromAccount = :account order by t.createdAt desc, t.id desc")
+    List<Transaction> findSentByAccount(@Param("account") String account, Limit limit);
+
+    @Query("select t from Transaction t where t.toAccount = :account and t.fromAccount <> :account " +
+            "order by t.createdAt desc, t.id desc")
+    List<Transaction> findReceivedByAccount(@Param("account") String account, Limit limit);
+
+    @Query("select t from Transaction t where t.fromAccount = :account " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+            "order by t.createdAt desc, t.id desc")
+    List<Transaction> findSentByAccountBefore(@Param("account") String account,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query("select t from Transaction t where t.toAccount = :account and t.fromAccount <> :account " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+            "order by t.createdAt desc, t.id desc")
+    List<Transaction> findReceivedByAccountBefore(@Param("account") String account,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    @Query("select t from Transaction t order by t.createdAt desc, t.id desc")
+    List<Transaction> findLatest(Limit limit);
+
+    @Query("select t from Transaction t where t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id) " +
+            "order by t.createdAt desc, t.id desc")
+    List<Transaction> findBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Transaction t where t.fromAccount = :account order by t.createdAt desc, t.id desc")
+    Stream<Transaction> streamSentByAccount(@Param("account") String account);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Transaction t where t.toAccount = :account and t.fromAccount <> :account " +
+            "order by t.createdAt desc, t.id desc")
+    Stream<Transaction> streamReceivedByAccount(@Param("account") String account);
+
+    // Recovery and archival walk one status oldest first along (status, createdAt, id), resuming after the last row seen
+
+    @Query("select new com.banking.transactionservice.model.RecoveryCandidate(" +
+            "t.id, t.transactionId, t.fromAccount, t.type, t.status, t.createdAt, t.eventVersion) from Transaction t " +
+            "where t.status = :status and t.createdAt < :before order by t.createdAt, t.id")
+    List<RecoveryCandidate> findStale(@Param("status") Transaction.TransactionStatus status,
+                                      @Param("before") LocalDateTime before,
+                                      Limit limit);
+
+    @Query("select new com.banking.transactionservice.model.RecoveryCandidate(" +
+            "t.id, t.transactionId, t.fromAccount, t.type, t.status, t.createdAt, t.eventVersion) from Transaction t " +
+            "where t.status = :status and t.createdAt < :before " +
+            "and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)) order by t.createdAt, t.id")
+    List<RecoveryCandidate> findStaleAfter(@Param("status") Transaction.TransactionStatus status,
+                                           @Param("before") LocalDateTime before,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    // Bulk reversal walks its matches oldest first, resuming after the last row seen
+
+    @Query("select count(t) from Transaction t where " + REVERSAL_FILTER)
+    long countReversible(@Param("transactionId") String transactionId,
+                         @Param("batchId") String batchId,
+                         @Param("account") String account,
+                         @Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to);
+
+    @Query(REVERSAL_CANDIDATE + REVERSAL_FILTER + " order by t.createdAt, t.id")
+    List<ReversalCandidate> findReversible(@Param("transactionId") String transactionId,
+                                           @Param("batchId") String batchId,
+                                           @Param("account") String account,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           Limit limit);
+
+    @Query(REVERSAL_CANDIDATE + REVERSAL_FILTER +
+            " and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)) order by t.createdAt, t.id")
+    List<ReversalCandidate> findReversibleAfter(@Param("transactionId") String transactionId,
+                                                @Param("batchId") String batchId,
+                                                @Param("account") String account,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    // Reconciliation reads an account range one side at a time so each query can use its account index
 
-    List<Transaction> findByToAccount(String toAccount);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.banking.transactionservice.model.LedgerEntry(" +
+            "t.fromAccount, t.toAccount, t.type, coalesce(t.fromAccountAmount, t.amount), t.status, t.completedAt) " +
+            "from Transaction t where t.fromAccount >= :from and (:to is null or t.fromAccount < :to) and t.status in :statuses")
+    Stream<LedgerEntry> streamLedgerByFromAccount(@Param("from") String from,
+                                                  @Param("to") String to,
+                                                  @Param("statuses") Collection<Transaction.TransactionStatus> statuses);
 
-    List<Transaction> findByStatus(Transaction.TransactionStatus status);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.banking.transactionservice.model.LedgerEntry(" +
+            "t.fromAccount, t.toAccount, t.type, coalesce(t.toAccountAmount, t.amount), t.status, t.completedAt) " +
+            "from Transaction t where t.toAccount >= :from and (:to is null or t.toAccount < :to) and t.type = :type " +
+            "and t.status in :statuses")
+    Stream<LedgerEntry> streamLedgerByToAccount(@Param("from") String from,
+                                                @Param("to") String to,
+                                                @Param("type") Transaction.TransactionType type,
+                                                @Param("statuses") Collection<Transaction.TransactionStatus> statuses);
+}
@@ -0,0 +1,9 @@
+package com.banking.transactionservice.repository;
+
+import com.banking.transactionservice.model.TransactionSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransactionSnapshotRepository extends JpaRepository<TransactionSnapshot, String> {
+}
@@ -0,0 +1,129 @@
+package com.banking.transactionservice.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders work per account on top of a shared executor. Accounts are hashed onto a fixed set of
+ * stripes; each stripe is a lock-free serial queue that has at most one drain task in the executor
+ * at a time, so tasks for the same account run one after another while different stripes run in
+ * parallel on every worker. A drain yields back to the executor after {@code drainBudget} tasks
+ * so one hot account can't pin a worker.
+ *
+ * Per-stripe depth is reported as one distribution, sampled each time a stripe starts a drain, so
+ * its percentiles and max show how unevenly the stripes are loaded without a series per stripe.
+ * A gauge per stripe, tagged with its index, can be switched on to find which stripe is hot.
+ */
+@Slf4j
+class AccountSequencer {
+
+    private final Executor executor;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int drainBudget;
+    private final DistributionSummary stripeDepths;
+
+    AccountSequencer(Executor executor, int stripeCount, int drainBudget, boolean stripeGauges,
+                     MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.executor = executor;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        this.drainBudget = Math.max(1, drainBudget);
+
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeDepths = DistributionSummary.builder("transaction.sequencer.stripe.depth")
+                .description("Tasks queued or running on a stripe when it starts draining")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        // Off by default: a series per stripe grows with the stripe count
+        if (stripeGauges) {
+            for (int i = 0; i < size; i++) {
+                Stripe stripe = stripes[i];
+                Gauge.builder("transaction.sequencer.stripe.queue.depth", stripe, s -> s.depth.get())
+                        .description("Tasks queued or running on one account stripe")
+                        .tag("stripe", String.valueOf(i))
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("transaction.sequencer.depth", this, AccountSequencer::totalDepth)
+                .description("Tasks queued or running across all account stripes")
+                .register(meterRegistry);
+        Gauge.builder("transaction.sequencer.stripe.max.depth", this, AccountSequencer::maxDepth)
+                .description("Tasks queued or running on the busiest account stripe")
+                .register(meterRegistry);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    void execute(String accountKey, Runnable task) {
+        stripes[stripeFor(accountKey)].enqueue(task);
+    }
+
+    int totalDepth() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.depth.get();
+        }
+        return total;
+    }
+
+    // A hot account shows up here long before it moves the total
+    int maxDepth() {
+        int max = 0;
+        for (Stripe stripe : stripes) {
+            max = Math.max(max, stripe.depth.get());
+        }
+        return max;
+    }
+
+    private int stripeFor(String accountKey) {
+        int h = accountKey == null ? 0 : accountKey.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private final class Stripe implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        // Queued plus running; the 0 -> 1 transition schedules the drain
+        private final AtomicInteger depth = new AtomicInteger();
+
+        void enqueue(Runnable task) {
+            tasks.add(task);
+            if (depth.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            stripeDepths.record(depth.get());
+            for (int ran = 1; ; ran++) {
+                Runnable task = tasks.poll();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Sequenced task failed", e);
+                }
+                if (depth.decrementAndGet() == 0) {
+                    return;
+                }
+                if (ran == drainBudget) {
+                    executor.execute(this);
+                    return;
+                }
+            }
+        }
+    }
+}
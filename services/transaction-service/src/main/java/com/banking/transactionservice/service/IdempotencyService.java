@@ -0,0 +1,140 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.dto.TransactionRequest;
+import com.banking.transactionservice.dto.TransactionResponse;
+import com.banking.transactionservice.exception.IdempotencyKeyMismatchException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Deduplicates retried transaction submissions by their Idempotency-Key.
+ *
+ * A key is scoped to the submitting (source) account and bound to the request it was first used
+ * with: a retry replays the original transaction only if its request hashes the same, and a key
+ * reused for a different request is refused with {@link IdempotencyKeyMismatchException}.
+ *
+ * Recent keys are answered from a size- and TTL-bounded in-memory cache without opening a
+ * database transaction. On a cache miss the unique (fromAccount, idempotencyKey) constraint is the
+ * source of truth: an existing row is replayed, and a concurrent request that loses the insert race
+ * replays the winner's transaction instead of failing.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionService transactionService;
+    private final Cache<String, Stored> responses;
+
+    public IdempotencyService(TransactionService transactionService,
+                              @Value("${transaction.idempotency.cache-size:100000}") long cacheSize,
+                              @Value("${transaction.idempotency.ttl:PT24H}") Duration ttl) {
+        this.transactionService = transactionService;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Result createTransaction(TransactionRequest request, String idempotencyKey) {
+        validateKey(idempotencyKey);
+        String cacheKey = request.getFromAccount() + '\n' + idempotencyKey;
+        String requestHash = requestHash(request);
+
+        Stored cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            log.info("Replaying cached response for idempotency key {}", idempotencyKey);
+            return replay(cached, requestHash, idempotencyKey);
+        }
+
+        // Evicted or submitted before a restart: the stored transaction is still authoritative
+        Optional<Stored> existing = find(request.getFromAccount(), idempotencyKey);
+        if (existing.isPresent()) {
+            log.info("Replaying stored transaction for idempotency key {}", idempotencyKey);
+            responses.put(cacheKey, existing.get());
+            return replay(existing.get(), requestHash, idempotencyKey);
+        }
+
+        TransactionResponse response;
+        try {
+            response = transactionService.createTransaction(request, idempotencyKey, requestHash);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent retry with the same key committed first
+            Stored winner = find(request.getFromAccount(), idempotencyKey).orElseThrow(() -> ex);
+            log.info("Idempotency key {} was claimed concurrently, replaying transaction {}",
+                    idempotencyKey, winner.response().getTransactionId());
+            responses.put(cacheKey, winner);
+            return replay(winner, requestHash, idempotencyKey);
+        }
+
+        responses.put(cacheKey, new Stored(requestHash, response));
+        return new Result(response, false);
+    }
+
+    private Optional<Stored> find(String fromAccount, String idempotencyKey) {
+        return transactionService.findByIdempotencyKey(fromAccount, idempotencyKey)
+                .map(transaction -> new Stored(transaction.getIdempotencyRequestHash(),
+                        TransactionService.mapToResponse(transaction)));
+    }
+
+    // Rows stored before request hashes were recorded have none and are replayed as before
+    private static Result replay(Stored stored, String requestHash, String idempotencyKey) {
+        if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key " + idempotencyKey + " was already used with a different request");
+        }
+        return new Result(stored.response(), true);
+    }
+
+    // SHA-256 over the request fields in a fixed order, with amounts and currencies normalised
+    static String requestHash(TransactionRequest request) {
+        String canonical = String.join("\u001f",
+                String.valueOf(request.getType()),
+                request.getFromAccount(),
+                nullToEmpty(request.getToAccount()),
+                canonicalAmount(request.getAmount()),
+                request.getCurrency() != null ? request.getCurrency().toUpperCase(Locale.ROOT) : "",
+                nullToEmpty(request.getDescription()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String canonicalAmount(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros().toPlainString() : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be non-blank and at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    public record Result(TransactionResponse response, boolean replayed) {
+    }
+
+    private record Stored(String requestHash, TransactionResponse response) {
+    }
+}
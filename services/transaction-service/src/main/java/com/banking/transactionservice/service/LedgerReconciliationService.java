@@ -0,0 +1,312 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.client.AccountClient;
+import com.banking.transactionservice.dto.AccountBalanceSnapshot;
+import com.banking.transactionservice.dto.BalanceDiscrepancy;
+import com.banking.transactionservice.dto.ReconciliationReport;
+import com.banking.transactionservice.exception.ReconciliationInProgressException;
+import com.banking.transactionservice.model.ArchivedMovement;
+import com.banking.transactionservice.model.LedgerEntry;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.repository.ArchivedMovementRepository;
+import com.banking.transactionservice.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Checks the transaction ledger against account-service balances: an account's opening balance
+ * plus the net of its COMPLETED transactions should equal its current balance.
+ *
+ * Accounts are split into partitions of consecutive account numbers, with boundaries from
+ * account-service, and a fork/join task tree reconciles the partitions in parallel. Each leaf
+ * fetches its partition's balances, then streams the partition's transactions from the DB and
+ * folds them into per-account net movements. Memory is bounded by partition size times
+ * parallelism, however large the ledger is.
+ *
+ * Transactions moved to the archive count through their accounts' {@link ArchivedMovement} totals.
+ *
+ * Balances and ledger are read at slightly different moments. An account with a transaction still
+ * in flight, or one completed after its partition's balances were fetched, is counted as unsettled
+ * instead of being compared; so is one whose archived totals changed in that time, since its
+ * transactions may have been read both from the table and the totals, or from neither.
+ */
+@Service
+@Slf4j
+public class LedgerReconciliationService {
+
+    private static final int MAX_REPORTED_DISCREPANCIES = 100;
+
+    // FAILED transactions never moved money; the in-flight statuses are read to spot unsettled accounts
+    private static final Set<Transaction.TransactionStatus> LEDGER_STATUSES = EnumSet.of(
+            Transaction.TransactionStatus.PENDING,
+            Transaction.TransactionStatus.PROCESSING,
+            Transaction.TransactionStatus.COMPLETED);
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedMovementRepository movementRepository;
+    private final AccountClient accountClient;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int partitionSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ReconciliationReport> latestReport = new AtomicReference<>();
+
+    public LedgerReconciliationService(TransactionRepository transactionRepository,
+                                       ArchivedMovementRepository movementRepository,
+                                       AccountClient accountClient,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${transaction.reconciliation.partition-size:5000}") int partitionSize,
+                                       @Value("${transaction.reconciliation.parallelism:0}") int parallelism) {
+        this.transactionRepository = transactionRepository;
+        this.movementRepository = movementRepository;
+        this.accountClient = accountClient;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(cron = "${transaction.reconciliation.cron:-}")
+    public void reconcileScheduled() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Scheduled reconciliation failed", e);
+        }
+    }
+
+    public Optional<ReconciliationReport> getLatestReport() {
+        return Optional.ofNullable(latestReport.get());
+    }
+
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReconciliationInProgressException("A reconciliation is already running");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("txn-reconcile-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+
+        try {
+            // The first partition starts below every account number, so accounts added since the
+            // boundaries were read (and ledger entries for unknown accounts) are still covered
+            List<String> boundaries = new ArrayList<>(accountClient.getBalancePartitions(partitionSize));
+            if (boundaries.isEmpty()) {
+                boundaries.add("");
+            } else {
+                boundaries.set(0, "");
+            }
+            log.info("Starting reconciliation of {} partitions with {} threads", boundaries.size(), parallelism);
+
+            Totals totals = pool.invoke(new PartitionTask(boundaries, 0, boundaries.size()));
+            ReconciliationReport report = totals.toReport(startedAt, boundaries.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            latestReport.set(report);
+            log.info("Reconciliation finished: {} accounts, {} transactions, {} matched, {} unsettled, " +
+                            "{} unverifiable, {} discrepancies in {} ms",
+                    report.getAccounts(), report.getTransactions(), report.getMatched(), report.getUnsettled(),
+                    report.getUnverifiable(), report.getDiscrepancies(), report.getDurationMs());
+            return report;
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    // Splits the partition list in halves down to single partitions
+    private final class PartitionTask extends RecursiveTask<Totals> {
+
+        private final List<String> boundaries;
+        private final int from;
+        private final int to;
+
+        PartitionTask(List<String> boundaries, int from, int to) {
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from == 1) {
+                String upper = to < boundaries.size() ? boundaries.get(to) : null;
+                return reconcilePartition(boundaries.get(from), upper);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(boundaries, from, middle);
+            left.fork();
+            Totals right = new PartitionTask(boundaries, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private Totals reconcilePartition(String from, String to) {
+        // Anything completed after this instant may or may not be reflected in the balances read next
+        LocalDateTime cutoff = LocalDateTime.now();
+        List<AccountBalanceSnapshot> balances = accountClient.exportBalances(from, to);
+
+        Map<String, Movement> movements = new HashMap<>(Math.max(16, balances.size() * 2));
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<LedgerEntry> debits = transactionRepository.streamLedgerByFromAccount(from, to, LEDGER_STATUSES)) {
+                debits.forEach(entry -> movements.computeIfAbsent(entry.fromAccount(), account -> new Movement())
+                        .add(entry, entry.type() == Transaction.TransactionType.DEPOSIT
+                                ? entry.amount() : entry.amount().negate(), cutoff));
+            }
+            try (Stream<LedgerEntry> credits = transactionRepository.streamLedgerByToAccount(
+                    from, to, Transaction.TransactionType.TRANSFER, LEDGER_STATUSES)) {
+                credits.forEach(entry -> movements.computeIfAbsent(entry.toAccount(), account -> new Movement())
+                        .add(entry, entry.amount(), cutoff));
+            }
+            for (ArchivedMovement archived : movementRepository.findByAccountRange(from, to)) {
+                movements.computeIfAbsent(archived.getAccountNumber(), account -> new Movement()).add(archived, cutoff);
+            }
+        });
+
+        Totals totals = new Totals();
+        for (AccountBalanceSnapshot account : balances) {
+            Movement movement = movements.remove(account.getAccountNumber());
+            if (movement == null) {
+                movement = new Movement();
+            }
+            totals.accounts++;
+            totals.transactions += movement.transactions;
+            if (account.getOpeningBalance() == null) {
+                totals.unverifiable++;
+            } else if (movement.unsettled) {
+                totals.unsettled++;
+            } else {
+                BigDecimal expected = account.getOpeningBalance().add(movement.net);
+                if (expected.compareTo(account.getBalance()) == 0) {
+                    totals.matched++;
+                } else {
+                    totals.add(BalanceDiscrepancy.builder()
+                            .accountNumber(account.getAccountNumber())
+                            .reason(BalanceDiscrepancy.Reason.BALANCE_MISMATCH)
+                            .expectedBalance(expected)
+                            .actualBalance(account.getBalance())
+                            .difference(account.getBalance().subtract(expected))
+                            .transactions(movement.transactions)
+                            .build());
+                }
+            }
+        }
+
+        // Ledger entries left over name accounts account-service doesn't have
+        movements.forEach((accountNumber, movement) -> {
+            totals.transactions += movement.transactions;
+            if (movement.transactions > 0) {
+                totals.add(BalanceDiscrepancy.builder()
+                        .accountNumber(accountNumber)
+                        .reason(BalanceDiscrepancy.Reason.ACCOUNT_NOT_FOUND)
+                        .expectedBalance(movement.net)
+                        .transactions(movement.transactions)
+                        .build());
+            }
+        });
+        return totals;
+    }
+
+    private static final class Movement {
+
+        private BigDecimal net = BigDecimal.ZERO;
+        private long transactions;
+        private boolean unsettled;
+
+        void add(LedgerEntry entry, BigDecimal signedAmount, LocalDateTime cutoff) {
+            if (entry.status() != Transaction.TransactionStatus.COMPLETED
+                    || entry.completedAt() == null || entry.completedAt().isAfter(cutoff)) {
+                unsettled = true;
+                return;
+            }
+            net = net.add(signedAmount);
+            transactions++;
+        }
+
+        void add(ArchivedMovement archived, LocalDateTime cutoff) {
+            if (archived.getUpdatedAt().isAfter(cutoff)) {
+                unsettled = true;
+                return;
+            }
+            net = net.add(archived.getNet());
+            transactions += archived.getTransactions();
+        }
+    }
+
+    // Per-subtree results, combined as the fork/join tree unwinds
+    private static final class Totals {
+
+        private long accounts;
+        private long transactions;
+        private long matched;
+        private long unsettled;
+        private long unverifiable;
+        private long discrepancies;
+        private final List<BalanceDiscrepancy> reported = new ArrayList<>();
+
+        void add(BalanceDiscrepancy discrepancy) {
+            log.warn("Balance discrepancy on account {}: {} expected={} actual={} over {} transactions",
+                    discrepancy.getAccountNumber(), discrepancy.getReason(), discrepancy.getExpectedBalance(),
+                    discrepancy.getActualBalance(), discrepancy.getTransactions());
+            discrepancies++;
+            if (reported.size() < MAX_REPORTED_DISCREPANCIES) {
+                reported.add(discrepancy);
+            }
+        }
+
+        Totals merge(Totals other) {
+            accounts += other.accounts;
+            transactions += other.transactions;
+            matched += other.matched;
+            unsettled += other.unsettled;
+            unverifiable += other.unverifiable;
+            discrepancies += other.discrepancies;
+            for (BalanceDiscrepancy discrepancy : other.reported) {
+                if (reported.size() == MAX_REPORTED_DISCREPANCIES) {
+                    break;
+                }
+                reported.add(discrepancy);
+            }
+            return this;
+        }
+
+        ReconciliationReport toReport(LocalDateTime startedAt, int partitions, long durationMs) {
+            return ReconciliationReport.builder()
+                    .startedAt(startedAt)
+                    .partitions(partitions)
+                    .accounts(accounts)
+                    .transactions(transactions)
+                    .matched(matched)
+                    .unsettled(unsettled)
+                    .unverifiable(unverifiable)
+                    .discrepancies(discrepancies)
+                    .discrepancyDetails(reported)
+                    .durationMs(durationMs)
+                    .build();
+        }
+    }
+}
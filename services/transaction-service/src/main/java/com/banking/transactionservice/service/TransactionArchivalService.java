@@ -0,0 +1,303 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.archive.TransactionArchive;
+import com.banking.transactionservice.dto.ArchivalReport;
+import com.banking.transactionservice.exception.ArchivalInProgressException;
+import com.banking.transactionservice.model.ArchivedMovement;
+import com.banking.transactionservice.model.ArchivedTransaction;
+import com.banking.transactionservice.model.RecoveryCandidate;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.model.TransactionEvent;
+import com.banking.transactionservice.repository.ArchivedMovementRepository;
+import com.banking.transactionservice.repository.TransactionEventRepository;
+import com.banking.transactionservice.repository.TransactionRepository;
+import com.banking.transactionservice.repository.TransactionSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished transactions older than {@code min-age} out of the {@code transactions},
+ * {@code transaction_events} and {@code transaction_snapshots} tables into {@link TransactionArchive}
+ * segments, keeping the hot tables small. Lookups by transaction id fall through to the archive.
+ *
+ * Each segment is filled with up to {@code segment-max-records} transactions, found oldest first
+ * along the (status, createdAt, id) index and written in id order, chunk by chunk. Rows are
+ * deleted only after the segment is durable, each chunk in one DB transaction that re-reads the
+ * rows under lock and leaves any that changed (or were archived by another instance) since they
+ * were written. The net money movement of the deleted COMPLETED transactions is added to
+ * {@link ArchivedMovement} in the same DB transaction, so reconciliation still balances.
+ */
+@Service
+@Slf4j
+public class TransactionArchivalService {
+
+    private static final List<Transaction.TransactionStatus> FINAL_STATUSES = List.of(
+            Transaction.TransactionStatus.COMPLETED,
+            Transaction.TransactionStatus.FAILED,
+            Transaction.TransactionStatus.REVERSED);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionEventRepository eventRepository;
+    private final TransactionSnapshotRepository snapshotRepository;
+    private final ArchivedMovementRepository movementRepository;
+    private final TransactionArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration minAge;
+    private final int segmentMaxRecords;
+    private final int chunkSize;
+    private final Counter archivedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ArchivalReport> latestReport = new AtomicReference<>();
+
+    public TransactionArchivalService(TransactionRepository transactionRepository,
+                                      TransactionEventRepository eventRepository,
+                                      TransactionSnapshotRepository snapshotRepository,
+                                      ArchivedMovementRepository movementRepository,
+                                      TransactionArchive archive,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transaction.archive.min-age:P90D}") Duration minAge,
+                                      @Value("${transaction.archive.segment-max-records:20000}") int segmentMaxRecords,
+                                      @Value("${transaction.archive.chunk-size:500}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.movementRepository = movementRepository;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minAge = minAge;
+        this.segmentMaxRecords = Math.max(1, segmentMaxRecords);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.archivedCounter = Counter.builder("transaction.archive.archived")
+                .description("Transactions moved from the hot tables to archive segments")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${transaction.archive.cron:-}")
+    public void archiveScheduled() {
+        try {
+            archive();
+        } catch (ArchivalInProgressException e) {
+            log.debug("Skipping scheduled archival: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Scheduled archival failed", e);
+        }
+    }
+
+    public Optional<ArchivalReport> getLatestReport() {
+        return Optional.ofNullable(latestReport.get());
+    }
+
+    public ArchivalReport archive() {
+        // Rows are deleted once archived, so never into a directory nobody chose
+        if (!archive.isConfigured()) {
+            throw new IllegalStateException(
+                    "Archival needs transaction.archive.directory set to storage shared by all instances");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ArchivalInProgressException("An archival run is already running");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        LocalDateTime cutoff = startedAt.minus(minAge);
+        Totals totals = new Totals();
+
+        try {
+            while (true) {
+                List<String> ids = collect(cutoff);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                long archivedBefore = totals.archived;
+                archiveSegment(ids, totals);
+                // Stop when nothing could be removed, rather than rewriting the same rows; the next run retries them
+                if (ids.size() < segmentMaxRecords || totals.archived == archivedBefore) {
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+
+        ArchivalReport report = ArchivalReport.builder()
+                .startedAt(startedAt)
+                .cutoff(cutoff)
+                .segments(totals.segments)
+                .segmentBytes(totals.segmentBytes)
+                .archived(totals.archived)
+                .skipped(totals.skipped)
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+        latestReport.set(report);
+        if (report.getSegments() > 0) {
+            log.info("Archival finished: {} transactions in {} segments ({} bytes), {} skipped in {} ms",
+                    report.getArchived(), report.getSegments(), report.getSegmentBytes(), report.getSkipped(),
+                    report.getDurationMs());
+        }
+        return report;
+    }
+
+    // Ids of up to one segment's worth of finished transactions created before the cutoff, in id order
+    private List<String> collect(LocalDateTime cutoff) {
+        List<String> ids = new ArrayList<>();
+        for (Transaction.TransactionStatus status : FINAL_STATUSES) {
+            int limit = Math.min(chunkSize, segmentMaxRecords - ids.size());
+            List<RecoveryCandidate> page = transactionRepository.findStale(status, cutoff, Limit.of(limit));
+            while (!page.isEmpty()) {
+                page.forEach(candidate -> ids.add(candidate.transactionId()));
+                if (page.size() < limit || ids.size() == segmentMaxRecords) {
+                    break;
+                }
+                RecoveryCandidate last = page.get(page.size() - 1);
+                limit = Math.min(chunkSize, segmentMaxRecords - ids.size());
+                page = transactionRepository.findStaleAfter(status, cutoff, last.createdAt(), last.id(), Limit.of(limit));
+            }
+            if (ids.size() == segmentMaxRecords) {
+                break;
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private void archiveSegment(List<String> ids, Totals totals) {
+        // Event version of each row as written, to detect rows that changed before they are deleted
+        Map<String, Long> versions = new HashMap<>(ids.size() * 2);
+        try (TransactionArchive.SegmentBuilder segment = archive.newSegment()) {
+            for (List<String> chunk : chunks(ids)) {
+                readOnlyTransaction.executeWithoutResult(status -> writeChunk(chunk, segment, versions));
+            }
+            if (segment.records() == 0) {
+                return;
+            }
+            totals.segmentBytes += segment.publish();
+            totals.segments++;
+        }
+
+        // A crash from here on leaves rows that are both archived and in the tables; the next run archives them again
+        List<String> written = new ArrayList<>(versions.keySet());
+        Collections.sort(written);
+        for (List<String> chunk : chunks(written)) {
+            Integer removed = transactionTemplate.execute(status -> removeChunk(chunk, versions));
+            totals.archived += removed;
+            totals.skipped += chunk.size() - removed;
+            archivedCounter.increment(removed);
+        }
+    }
+
+    private void writeChunk(List<String> chunk, TransactionArchive.SegmentBuilder segment, Map<String, Long> versions) {
+        Map<String, Transaction> rows = transactionRepository.findByTransactionIdIn(chunk).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+        Map<String, List<TransactionEvent>> events = eventRepository
+                .findByTransactionIdInOrderByTransactionIdAscVersionAsc(chunk).stream()
+                .collect(Collectors.groupingBy(TransactionEvent::getTransactionId));
+        for (String transactionId : chunk) {
+            Transaction row = rows.get(transactionId);
+            if (row == null || !TransactionService.isTerminal(row.getStatus())) {
+                continue;
+            }
+            segment.append(new ArchivedTransaction(row, events.getOrDefault(transactionId, List.of())));
+            versions.put(transactionId, row.getEventVersion());
+        }
+    }
+
+    private int removeChunk(List<String> chunk, Map<String, Long> versions) {
+        List<Transaction> rows = transactionRepository.lockByTransactionIdIn(chunk).stream()
+                .filter(row -> TransactionService.isTerminal(row.getStatus())
+                        && row.getEventVersion().equals(versions.get(row.getTransactionId())))
+                .collect(Collectors.toList());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> transactionIds = rows.stream().map(Transaction::getTransactionId).collect(Collectors.toList());
+
+        recordMovements(rows);
+        eventRepository.deleteByTransactionIdIn(transactionIds);
+        snapshotRepository.deleteAllByIdInBatch(transactionIds);
+        transactionRepository.deleteAllInBatch(rows);
+        return rows.size();
+    }
+
+    // Same signs as reconciliation: deposits and incoming transfers add, withdrawals and outgoing transfers subtract
+    private void recordMovements(List<Transaction> rows) {
+        // Sorted, so concurrent archivals lock movement rows in the same order
+        Map<String, ArchivedMovement> changes = new TreeMap<>();
+        for (Transaction row : rows) {
+            if (row.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+                continue;
+            }
+            // In each account's own currency, as account-service applied it
+            BigDecimal amount = row.appliedFromAmount();
+            switch (row.getType()) {
+                case DEPOSIT -> add(changes, row.getFromAccount(), amount);
+                case WITHDRAWAL -> add(changes, row.getFromAccount(), amount.negate());
+                case TRANSFER -> {
+                    add(changes, row.getFromAccount(), amount.negate());
+                    add(changes, row.getToAccount(), row.appliedToAmount());
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<String, ArchivedMovement> movements = movementRepository.lockByAccountNumberIn(changes.keySet()).stream()
+                .collect(Collectors.toMap(ArchivedMovement::getAccountNumber, Function.identity()));
+        changes.forEach((accountNumber, change) -> {
+            ArchivedMovement movement = movements.computeIfAbsent(accountNumber,
+                    account -> ArchivedMovement.builder().accountNumber(account).build());
+            movement.setNet(movement.getNet().add(change.getNet()));
+            movement.setTransactions(movement.getTransactions() + change.getTransactions());
+        });
+        movementRepository.saveAll(movements.values());
+    }
+
+    private static void add(Map<String, ArchivedMovement> changes, String accountNumber, BigDecimal amount) {
+        ArchivedMovement change = changes.computeIfAbsent(accountNumber,
+                account -> ArchivedMovement.builder().accountNumber(account).build());
+        change.setNet(change.getNet().add(amount));
+        change.setTransactions(change.getTransactions() + 1);
+    }
+
+    private List<List<String>> chunks(List<String> ids) {
+        List<List<String>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static final class Totals {
+
+        private long segments;
+        private long segmentBytes;
+        private long archived;
+        private long skipped;
+    }
+}
@@ -0,0 +1,237 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.exception.EventStoreConflictException;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.model.TransactionEvent;
+import com.banking.transactionservice.repository.TransactionEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Append-only store for transaction event streams. The stream head lives on
+ * {@link Transaction#getEventVersion()}, so appending never reads the existing history; the
+ * unique (transactionId, version) index rejects a second writer that raced on the same head.
+ *
+ * Payloads are stored compactly: the first event of a stream, and every {@code full-every}-th
+ * after it, carries the full state, and the events in between carry only the fields that changed
+ * since the previous version (taken from {@link Transaction#getEventBaseline()}). Payloads at or
+ * above {@code compress-threshold-bytes} are Deflate-compressed. {@link #readStream} and
+ * {@link #fold} undo both, so callers always see full state.
+ */
+@Service
+@Slf4j
+public class TransactionEventStore {
+
+    private final TransactionEventRepository transactionEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int fullEvery;
+    private final int compressThresholdBytes;
+
+    public TransactionEventStore(TransactionEventRepository transactionEventRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${transaction.events.storage.full-every:10}") int fullEvery,
+                                 @Value("${transaction.events.storage.compress-threshold-bytes:512}") int compressThresholdBytes) {
+        this.transactionEventRepository = transactionEventRepository;
+        this.objectMapper = objectMapper;
+        this.fullEvery = Math.max(1, fullEvery);
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    public TransactionEvent append(Transaction transaction, String eventType) {
+        long expectedVersion = transaction.getEventVersion();
+        long nextVersion = expectedVersion + 1;
+
+        // Advance the head first so the stored state carries the version it was written at
+        transaction.setEventVersion(nextVersion);
+
+        TransactionEvent event = encode(transaction, eventType, nextVersion);
+
+        try {
+            // Flush so a conflicting append fails here rather than at commit
+            TransactionEvent saved = transactionEventRepository.saveAndFlush(event);
+            transaction.captureEventBaseline();
+            log.debug("Transaction event appended: {} v{} - {} ({})",
+                    transaction.getTransactionId(), nextVersion, eventType, event.getEncoding());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            transaction.setEventVersion(expectedVersion);
+            throw new EventStoreConflictException(String.format(
+                    "Concurrent write to event stream %s: version %d already exists",
+                    transaction.getTransactionId(), nextVersion), e);
+        }
+    }
+
+    /**
+     * Appends one event to each of a set of streams that cannot conflict: new streams created in the
+     * same DB transaction (bulk submission), or streams whose rows the caller holds locked (bulk
+     * reversal). Inserts are left to the JDBC batch at flush time.
+     */
+    public void appendAll(List<Transaction> transactions, String eventType) {
+        List<TransactionEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            long nextVersion = transaction.getEventVersion() + 1;
+            transaction.setEventVersion(nextVersion);
+            events.add(encode(transaction, eventType, nextVersion));
+            transaction.captureEventBaseline();
+        }
+        transactionEventRepository.saveAll(events);
+    }
+
+    /**
+     * Reads a stream with every event expanded to the full state as of its version. The returned
+     * events are detached copies; the stored rows keep their compact encoding.
+     */
+    public List<TransactionEvent> readStream(String transactionId) {
+        return expand(transactionEventRepository.findByTransactionIdOrderByVersionAsc(transactionId));
+    }
+
+    // Expands stored events of one stream, in version order, as readStream does; also used for archived streams
+    public List<TransactionEvent> expand(List<TransactionEvent> stored) {
+        List<TransactionEvent> expanded = new ArrayList<>(stored.size());
+        ObjectNode state = objectMapper.createObjectNode();
+        for (TransactionEvent event : stored) {
+            ObjectNode payload = readPayload(event);
+            if (event.getEncoding() == TransactionEvent.PayloadEncoding.FULL) {
+                state = payload;
+            } else {
+                state.setAll(payload);
+            }
+            expanded.add(TransactionEvent.builder()
+                    .id(event.getId())
+                    .transactionId(event.getTransactionId())
+                    .eventType(event.getEventType())
+                    .eventData(state.toString())
+                    .encoding(TransactionEvent.PayloadEncoding.FULL)
+                    .compressed(false)
+                    .createdAt(event.getCreatedAt())
+                    .version(event.getVersion())
+                    .build());
+        }
+        return expanded;
+    }
+
+    /**
+     * Rebuilds a transaction by applying events in version order on top of {@code base}, which is
+     * a snapshot or {@code null} to start from an empty stream. Each event overwrites the fields
+     * it carries.
+     */
+    public Transaction fold(Transaction base, List<TransactionEvent> events) {
+        Transaction state = base != null ? base : new Transaction();
+        for (TransactionEvent event : events) {
+            try {
+                state = objectMapper.readerForUpdating(state).readValue(payloadBytes(event));
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format(
+                        "Could not apply event %s v%d", event.getTransactionId(), event.getVersion()), e);
+            }
+        }
+        return state;
+    }
+
+    public Transaction deserialize(String data) {
+        try {
+            return objectMapper.readValue(data, Transaction.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not deserialize transaction state", e);
+        }
+    }
+
+    public String serialize(Transaction transaction) {
+        try {
+            return objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize transaction " + transaction.getTransactionId(), e);
+        }
+    }
+
+    TransactionEvent encode(Transaction transaction, String eventType, long version) {
+        ObjectNode current = objectMapper.valueToTree(transaction);
+        boolean full = transaction.getEventBaseline() == null || (version - 1) % fullEvery == 0;
+
+        ObjectNode payload = current;
+        if (!full) {
+            ObjectNode previous = objectMapper.valueToTree(transaction.getEventBaseline());
+            payload = objectMapper.createObjectNode();
+            Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!field.getValue().equals(previous.get(field.getKey()))) {
+                    payload.set(field.getKey(), field.getValue());
+                }
+            }
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize transaction " + transaction.getTransactionId(), e);
+        }
+        boolean compress = json.length >= compressThresholdBytes;
+
+        return TransactionEvent.builder()
+                .transactionId(transaction.getTransactionId())
+                .eventType(eventType)
+                .eventData(compress
+                        ? Base64.getEncoder().encodeToString(deflate(json))
+                        : new String(json, StandardCharsets.UTF_8))
+                .encoding(full ? TransactionEvent.PayloadEncoding.FULL : TransactionEvent.PayloadEncoding.DELTA)
+                .compressed(compress)
+                .version(version)
+                .build();
+    }
+
+    private ObjectNode readPayload(TransactionEvent event) {
+        try {
+            return (ObjectNode) objectMapper.readTree(payloadBytes(event));
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format(
+                    "Could not read event %s v%d", event.getTransactionId(), event.getVersion()), e);
+        }
+    }
+
+    private byte[] payloadBytes(TransactionEvent event) {
+        if (!event.isCompressed()) {
+            return event.getEventData().getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] compressed = Base64.getDecoder().decode(event.getEventData());
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt compressed payload for event " + event.getTransactionId(), e);
+        }
+    }
+
+    private byte[] deflate(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+}
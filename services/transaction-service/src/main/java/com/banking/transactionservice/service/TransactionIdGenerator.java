@@ -0,0 +1,9 @@
+package com.banking.transactionservice.service;
+
+/**
+ * Source of {@code Transaction.transactionId} values. Selected with {@code transaction.id.strategy}.
+ */
+public interface TransactionIdGenerator {
+
+    String nextId();
+}
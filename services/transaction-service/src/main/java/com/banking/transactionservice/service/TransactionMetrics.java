@@ -0,0 +1,166 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Meters for creating and processing transactions: a latency timer per operation and per stage
+ * within it (DB save, event store append, account-service call, outbox write), tagged with the
+ * transaction type and outcome and published as percentile histograms, counters of status
+ * transitions, and gauges of operations in flight. Meters are cached by their tags so recording
+ * on the hot path is a map lookup.
+ */
+@Component
+public class TransactionMetrics {
+
+    public enum Operation {
+        CREATE, PROCESS
+    }
+
+    public enum Stage {
+        PERSIST, EVENT_STORE, ACCOUNT_SERVICE, OUTBOX
+    }
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<StageKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<OperationKey, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<TransitionKey, Counter> transitionCounters = new ConcurrentHashMap<>();
+    private final Map<Operation, AtomicInteger> inFlight = new EnumMap<>(Operation.class);
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Operation operation : Operation.values()) {
+            AtomicInteger count = new AtomicInteger();
+            inFlight.put(operation, count);
+            Gauge.builder("transaction.inflight", count, AtomicInteger::get)
+                    .description("Transactions currently being created or processed")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Marks the start of an operation and returns the start time to hand to
+     * {@link #finished(Operation, Transaction.TransactionType, boolean, long)}.
+     */
+    public long started(Operation operation) {
+        inFlight.get(operation).incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void finished(Operation operation, Transaction.TransactionType type, boolean succeeded, long startNanos) {
+        inFlight.get(operation).decrementAndGet();
+        operationTimers.computeIfAbsent(new OperationKey(operation, type, succeeded), this::operationTimer)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T time(Operation operation, Stage stage, Transaction.TransactionType type, Supplier<T> work) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = work.get();
+            succeeded = true;
+            return result;
+        } finally {
+            stageTimers.computeIfAbsent(new StageKey(operation, stage, type, succeeded), this::stageTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void time(Operation operation, Stage stage, Transaction.TransactionType type, Runnable work) {
+        time(operation, stage, type, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts a status change once the surrounding transaction commits, so a change that is rolled
+     * back (e.g. a failed processing attempt) isn't counted; {@code from} is null for a newly
+     * created transaction.
+     */
+    public void transition(Transaction.TransactionType type, Transaction.TransactionStatus from,
+                           Transaction.TransactionStatus to) {
+        Counter counter = transitionCounters.computeIfAbsent(new TransitionKey(type, from, to), this::transitionCounter);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    private Timer operationTimer(OperationKey key) {
+        return Timer.builder("transaction.operation")
+                .description("Time to create or process a transaction")
+                .tag("operation", tagValue(key.operation()))
+                .tag("type", key.type().name())
+                .tag("outcome", outcome(key.succeeded()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private Timer stageTimer(StageKey key) {
+        return Timer.builder("transaction.stage")
+                .description("Time spent in one stage of creating or processing a transaction")
+                .tag("operation", tagValue(key.operation()))
+                .tag("stage", tagValue(key.stage()))
+                .tag("type", key.type().name())
+                .tag("outcome", outcome(key.succeeded()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private Counter transitionCounter(TransitionKey key) {
+        return Counter.builder("transaction.status.transitions")
+                .description("Transaction status changes")
+                .tag("type", key.type().name())
+                .tag("from", key.from() != null ? key.from().name() : "NONE")
+                .tag("to", key.to().name())
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String outcome(boolean succeeded) {
+        return succeeded ? "success" : "failure";
+    }
+
+    private record OperationKey(Operation operation, Transaction.TransactionType type, boolean succeeded) {
+    }
+
+    private record StageKey(Operation operation, Stage stage, Transaction.TransactionType type, boolean succeeded) {
+    }
+
+    private record TransitionKey(Transaction.TransactionType type, Transaction.TransactionStatus from,
+                                 Transaction.TransactionStatus to) {
+    }
+}
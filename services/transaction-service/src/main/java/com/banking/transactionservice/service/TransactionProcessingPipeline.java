@@ -0,0 +1,216 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.exception.BalanceChangeOutcomeUnknownException;
+import com.banking.transactionservice.exception.EventStoreConflictException;
+import com.banking.transactionservice.exception.ProcessingCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link TransactionService#processTransaction(String)} on a bounded worker pool so that
+ * request threads only pay for the PENDING insert. Admission is controlled by a semaphore sized
+ * to workers + queue capacity: a submission that cannot get a permit is rejected before anything
+ * is written, and a permit is only handed to the pool once the submitting DB transaction commits.
+ * Dispatch goes through an {@link AccountSequencer} keyed by the debited account, so transactions
+ * on one account execute in submission order while other accounts proceed in parallel. A
+ * {@code null} key skips the sequencer, for transactions whose effect does not depend on order.
+ * Transactions handed to the pipeline are tracked until processed, so recovery can tell a PENDING
+ * row queued here from one a crashed instance left behind.
+ */
+@Component
+@Slf4j
+public class TransactionProcessingPipeline {
+
+    private final ObjectProvider<TransactionService> transactionService;
+    private final boolean enabled;
+    private final long admissionTimeoutMs;
+    private final Semaphore capacity;
+    private final ThreadPoolExecutor workers;
+    private final AccountSequencer sequencer;
+    private final ExecutorService batchFeeder;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public TransactionProcessingPipeline(
+            ObjectProvider<TransactionService> transactionService,
+            @Value("${transaction.processing.async:false}") boolean enabled,
+            @Value("${transaction.processing.workers:8}") int workerCount,
+            @Value("${transaction.processing.queue-capacity:1000}") int queueCapacity,
+            @Value("${transaction.processing.admission-timeout-ms:100}") long admissionTimeoutMs,
+            @Value("${transaction.processing.stripes:256}") int stripeCount,
+            @Value("${transaction.processing.stripe-drain-budget:32}") int drainBudget,
+            @Value("${transaction.processing.stripe-gauges:false}") boolean stripeGauges,
+            MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+        this.admissionTimeoutMs = admissionTimeoutMs;
+        this.capacity = new Semaphore(workerCount + queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount,
+                0L, TimeUnit.MILLISECONDS,
+                // Holds at most one drain task per stripe; the semaphore bounds what waits inside the stripes
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "txn-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sequencer = new AccountSequencer(workers, stripeCount, drainBudget, stripeGauges, meterRegistry);
+        this.batchFeeder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "txn-batch-feeder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves processing capacity for a transaction and schedules it to run once the current
+     * DB transaction commits. If the surrounding transaction rolls back, the reservation is released.
+     */
+    public void submitOnCommit(String transactionId, String accountKey) {
+        acquirePermit();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(transactionId, accountKey);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    dispatch(transactionId, accountKey);
+                } else {
+                    capacity.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedules a whole batch once the current DB transaction commits. Batches don't take
+     * admission permits up front; a feeder thread hands items to the workers as capacity frees
+     * up, so a large file drains at the pipeline's pace without starving single submissions of
+     * more than the queue it occupies.
+     */
+    public void submitBatchOnCommit(List<Submission> submissions) {
+        Runnable feed = () -> {
+            submissions.forEach(submission -> inFlight.add(submission.transactionId()));
+            batchFeeder.execute(() -> {
+                for (int i = 0; i < submissions.size(); i++) {
+                    Submission submission = submissions.get(i);
+                    try {
+                        capacity.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.warn("Batch feeder interrupted, {} transactions left PENDING", submissions.size() - i);
+                        submissions.subList(i, submissions.size())
+                                .forEach(pending -> inFlight.remove(pending.transactionId()));
+                        return;
+                    }
+                    dispatch(submission.transactionId(), submission.accountKey());
+                }
+            });
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            feed.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                feed.run();
+            }
+        });
+    }
+
+    public int getAvailableCapacity() {
+        return capacity.availablePermits();
+    }
+
+    // Queued or running here, including batch items still waiting for the feeder
+    public boolean isInFlight(String transactionId) {
+        return inFlight.contains(transactionId);
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!capacity.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ProcessingCapacityExceededException(
+                        "Transaction processing capacity exhausted, please retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingCapacityExceededException("Interrupted while waiting for processing capacity");
+        }
+    }
+
+    private void dispatch(String transactionId, String accountKey) {
+        inFlight.add(transactionId);
+        if (accountKey == null) {
+            workers.execute(() -> process(transactionId));
+        } else {
+            sequencer.execute(accountKey, () -> process(transactionId));
+        }
+    }
+
+    private void process(String transactionId) {
+        try {
+            transactionService.getObject().processTransaction(transactionId);
+        } catch (EventStoreConflictException e) {
+            // Another writer owns this stream right now; it decides the outcome
+            log.warn("Skipping transaction {}: {}", transactionId, e.getMessage());
+        } catch (BalanceChangeOutcomeUnknownException e) {
+            // Left PROCESSING; recovery looks up what account-service applied before failing or reversing it
+            log.warn("Transaction {} left for recovery: {}", transactionId, e.getMessage());
+        } catch (Exception e) {
+            // processTransaction rolls back its own FAILED update when it rethrows, so persist it separately
+            log.error("Asynchronous processing failed for transaction: {}", transactionId, e);
+            try {
+                transactionService.getObject().failTransaction(transactionId, e.getMessage());
+            } catch (Exception failure) {
+                log.error("Could not mark transaction {} as FAILED", transactionId, failure);
+            }
+        } finally {
+            inFlight.remove(transactionId);
+            capacity.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        batchFeeder.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Transaction workers did not finish within 30s, {} tasks still sequenced", sequencer.totalDepth());
+            workers.shutdownNow();
+        }
+    }
+
+    public record Submission(String transactionId, String accountKey) {
+    }
+}
@@ -0,0 +1,321 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.client.AccountClient;
+import com.banking.transactionservice.client.AccountServiceGuard;
+import com.banking.transactionservice.dto.AppliedMutation;
+import com.banking.transactionservice.dto.AppliedMutationLookupRequest;
+import com.banking.transactionservice.dto.RecoveryReport;
+import com.banking.transactionservice.exception.RecoveryInProgressException;
+import com.banking.transactionservice.model.RecoveryCandidate;
+import com.banking.transactionservice.model.StreamHead;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.repository.TransactionEventRepository;
+import com.banking.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Settles transactions left in PENDING or PROCESSING, e.g. by a crash between the PENDING insert
+ * and processing, or by a pipeline queue lost on shutdown. A row is stuck once it is older than
+ * {@code stale-after} and not queued in this instance's pipeline; on the first sweeps after
+ * startup, rows created before the instance started count as well, since whatever was processing
+ * them is gone.
+ *
+ * Each status is paged oldest first along its (status, createdAt, id) index, and each page is
+ * decided with one event-store query and at most one account-service lookup:
+ * - a row behind its event stream has drifted and is rebuilt from the log;
+ * - a row younger than {@code max-resume-age} is handed back to the pipeline, which is safe
+ *   because account-service skips balance changes whose reference it has already applied;
+ * - an older row is failed if its balance change never reached account-service, and reversed if
+ *   it did (or completed, if the reversal would overdraw the account).
+ * Fails and reversals run on a bounded pool, one DB transaction each.
+ */
+@Service
+@Slf4j
+public class TransactionRecoveryService {
+
+    private static final List<Transaction.TransactionStatus> STUCK_STATUSES = List.of(
+            Transaction.TransactionStatus.PENDING,
+            Transaction.TransactionStatus.PROCESSING);
+
+    // Account-service answers at most this many references per lookup
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionEventRepository eventRepository;
+    private final TransactionService transactionService;
+    private final TransactionProcessingPipeline processingPipeline;
+    private final TransactionReplayService replayService;
+    private final AccountClient accountClient;
+    private final AccountServiceGuard accountServiceGuard;
+    private final boolean enabled;
+    private final Duration staleAfter;
+    private final Duration maxResumeAge;
+    private final boolean recoverOnStartup;
+    private final int pageSize;
+    private final int parallelism;
+    private final LocalDateTime instanceStartedAt = LocalDateTime.now();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<RecoveryReport> latestReport = new AtomicReference<>();
+    private final Map<String, Counter> actions;
+
+    public TransactionRecoveryService(TransactionRepository transactionRepository,
+                                      TransactionEventRepository eventRepository,
+                                      TransactionService transactionService,
+                                      TransactionProcessingPipeline processingPipeline,
+                                      TransactionReplayService replayService,
+                                      AccountClient accountClient,
+                                      AccountServiceGuard accountServiceGuard,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transaction.recovery.enabled:true}") boolean enabled,
+                                      @Value("${transaction.recovery.stale-after:PT2M}") Duration staleAfter,
+                                      @Value("${transaction.recovery.max-resume-age:PT15M}") Duration maxResumeAge,
+                                      @Value("${transaction.recovery.recover-on-startup:true}") boolean recoverOnStartup,
+                                      @Value("${transaction.recovery.page-size:500}") int pageSize,
+                                      @Value("${transaction.recovery.parallelism:8}") int parallelism) {
+        this.transactionRepository = transactionRepository;
+        this.eventRepository = eventRepository;
+        this.transactionService = transactionService;
+        this.processingPipeline = processingPipeline;
+        this.replayService = replayService;
+        this.accountClient = accountClient;
+        this.accountServiceGuard = accountServiceGuard;
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+        this.maxResumeAge = maxResumeAge;
+        this.recoverOnStartup = recoverOnStartup;
+        this.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        this.parallelism = Math.max(1, parallelism);
+        this.actions = Set.of("rebuilt", "resumed", "failed", "reversed").stream()
+                .collect(Collectors.toMap(action -> action, action -> Counter.builder("transaction.recovery.actions")
+                        .description("Stuck transactions settled by the recovery sweep")
+                        .tag("action", action)
+                        .register(meterRegistry)));
+    }
+
+    @Scheduled(initialDelayString = "${transaction.recovery.initial-delay-ms:10000}",
+            fixedDelayString = "${transaction.recovery.interval-ms:60000}")
+    public void recoverScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recover();
+        } catch (RecoveryInProgressException e) {
+            log.debug("Skipping scheduled recovery: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Scheduled recovery failed", e);
+        }
+    }
+
+    public Optional<RecoveryReport> getLatestReport() {
+        return Optional.ofNullable(latestReport.get());
+    }
+
+    public RecoveryReport recover() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RecoveryInProgressException("A recovery sweep is already running");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        LocalDateTime cutoff = startedAt.minus(staleAfter);
+        if (recoverOnStartup && instanceStartedAt.isAfter(cutoff)) {
+            cutoff = instanceStartedAt;
+        }
+        LocalDateTime resumeAfter = startedAt.minus(maxResumeAge);
+
+        Totals totals = new Totals();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "txn-recovery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (Transaction.TransactionStatus status : STUCK_STATUSES) {
+                List<RecoveryCandidate> page = transactionRepository.findStale(status, cutoff, Limit.of(pageSize));
+                while (!page.isEmpty()) {
+                    recoverPage(page, resumeAfter, pool, totals);
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    RecoveryCandidate last = page.get(page.size() - 1);
+                    page = transactionRepository.findStaleAfter(
+                            status, cutoff, last.createdAt(), last.id(), Limit.of(pageSize));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recovery interrupted", e);
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+
+        RecoveryReport report = totals.toReport(startedAt, cutoff, (System.nanoTime() - start) / 1_000_000);
+        latestReport.set(report);
+        if (report.getScanned() > 0) {
+            log.info("Recovery finished: {} stuck transactions, {} in flight, {} rebuilt, {} resumed, {} failed, " +
+                            "{} reversed, {} errors in {} ms",
+                    report.getScanned(), report.getInFlight(), report.getRebuilt(), report.getResumed(),
+                    report.getFailed(), report.getReversed(), report.getErrors(), report.getDurationMs());
+        }
+        return report;
+    }
+
+    private void recoverPage(List<RecoveryCandidate> page, LocalDateTime resumeAfter, ExecutorService pool,
+                             Totals totals) throws InterruptedException {
+        totals.scanned.add(page.size());
+        List<RecoveryCandidate> stuck = new ArrayList<>(page.size());
+        for (RecoveryCandidate candidate : page) {
+            if (processingPipeline.isInFlight(candidate.transactionId())) {
+                totals.inFlight.increment();
+            } else {
+                stuck.add(candidate);
+            }
+        }
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        // A row and its events commit together, so a row behind its stream has drifted and the log wins
+        Map<String, Long> heads = eventRepository.findStreamHeads(
+                        stuck.stream().map(RecoveryCandidate::transactionId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(StreamHead::transactionId, StreamHead::version));
+
+        List<RecoveryCandidate> behind = new ArrayList<>();
+        List<TransactionProcessingPipeline.Submission> resume = new ArrayList<>();
+        List<RecoveryCandidate> expired = new ArrayList<>();
+        for (RecoveryCandidate candidate : stuck) {
+            Long head = heads.get(candidate.transactionId());
+            if (head != null && head > candidate.eventVersion()) {
+                behind.add(candidate);
+            } else if (!candidate.createdAt().isBefore(resumeAfter)) {
+                resume.add(submission(candidate));
+            } else {
+                expired.add(candidate);
+            }
+        }
+        Set<String> applied = expired.isEmpty() ? Set.of() : appliedReferences(expired);
+
+        List<Callable<Void>> tasks = new ArrayList<>(behind.size() + expired.size());
+        for (RecoveryCandidate candidate : behind) {
+            tasks.add(settle(candidate, totals, () -> {
+                // Also the case for a row the pipeline finished after the page was read; replay leaves it alone
+                if (replayService.replayStream(candidate.transactionId(), TransactionReplayService.Mode.REBUILD)
+                        .isRowRebuilt()) {
+                    totals.record("rebuilt", totals.rebuilt);
+                }
+            }));
+        }
+        List<TransactionProcessingPipeline.Submission> completeInstead = new ArrayList<>();
+        for (RecoveryCandidate candidate : expired) {
+            String transactionId = candidate.transactionId();
+            tasks.add(settle(candidate, totals, () -> {
+                if (!applied.contains(transactionId)) {
+                    transactionService.failTransaction(transactionId,
+                            "Not processed within " + maxResumeAge + "; abandoned by recovery");
+                    totals.record("failed", totals.failed);
+                } else if (transactionService.reverseTransaction(transactionId,
+                        "Not completed within " + maxResumeAge + "; reversed by recovery")) {
+                    totals.record("reversed", totals.reversed);
+                } else {
+                    // The money has moved and can't be moved back; processing again completes it
+                    synchronized (completeInstead) {
+                        completeInstead.add(submission(candidate));
+                    }
+                }
+            }));
+        }
+        pool.invokeAll(tasks);
+
+        resume.addAll(completeInstead);
+        if (!resume.isEmpty()) {
+            processingPipeline.submitBatchOnCommit(resume);
+            resume.forEach(submission -> totals.record("resumed", totals.resumed));
+        }
+    }
+
+    // Transactions use their id as the account-service reference, for every account they touch
+    private Set<String> appliedReferences(List<RecoveryCandidate> candidates) {
+        AppliedMutationLookupRequest request = new AppliedMutationLookupRequest(
+                candidates.stream().map(RecoveryCandidate::transactionId).collect(Collectors.toList()));
+        List<AppliedMutation> applied = accountServiceGuard.execute(() -> accountClient.findAppliedMutations(request));
+        Set<String> references = new HashSet<>();
+        applied.forEach(mutation -> references.add(mutation.getReference()));
+        return references;
+    }
+
+    private TransactionProcessingPipeline.Submission submission(RecoveryCandidate candidate) {
+        return new TransactionProcessingPipeline.Submission(candidate.transactionId(),
+                transactionService.sequencingKey(candidate.type(), candidate.fromAccount()));
+    }
+
+    private Callable<Void> settle(RecoveryCandidate candidate, Totals totals, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                totals.errors.increment();
+                log.warn("Could not recover transaction {}: {}", candidate.transactionId(), e.getMessage());
+            }
+            return null;
+        };
+    }
+
+    private final class Totals {
+
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder rebuilt = new LongAdder();
+        private final LongAdder resumed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder reversed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(String action, LongAdder count) {
+            count.increment();
+            actions.get(action).increment();
+        }
+
+        RecoveryReport toReport(LocalDateTime startedAt, LocalDateTime cutoff, long durationMs) {
+            return RecoveryReport.builder()
+                    .startedAt(startedAt)
+                    .cutoff(cutoff)
+                    .scanned(scanned.sum())
+                    .inFlight(inFlight.sum())
+                    .rebuilt(rebuilt.sum())
+                    .resumed(resumed.sum())
+                    .failed(failed.sum())
+                    .reversed(reversed.sum())
+                    .errors(errors.sum())
+                    .durationMs(durationMs)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.dto.ReplayReport;
+import com.banking.transactionservice.dto.StreamReplayResult;
+import com.banking.transactionservice.exception.ReplayInProgressException;
+import com.banking.transactionservice.exception.TransactionNotFoundException;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.model.TransactionEvent;
+import com.banking.transactionservice.model.TransactionSnapshot;
+import com.banking.transactionservice.repository.TransactionEventRepository;
+import com.banking.transactionservice.repository.TransactionRepository;
+import com.banking.transactionservice.repository.TransactionSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds {@link Transaction} state from the event store. Each stream is folded from its latest
+ * {@link TransactionSnapshot} plus the events after it; a stream gets a fresh snapshot once it reaches
+ * a terminal status or its tail reaches the snapshot interval, so the next replay only reads what was
+ * appended since. A stream holds only a handful of events, so most snapshots are taken at the end.
+ *
+ * Full replays page through stream ids in chunks and fold chunks in parallel, one DB transaction
+ * per chunk. VERIFY compares the folded state with the {@code transactions} row; REBUILD also
+ * overwrites rows that differ (or are missing) with the folded state. REBUILD locks the rows before
+ * reading the log, so it can run against live transactions without writing back an older state.
+ */
+@Service
+@Slf4j
+public class TransactionReplayService {
+
+    public enum Mode {
+        VERIFY,
+        REBUILD
+    }
+
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    // Fields the projection must agree with the event log on; timestamps are compared at column precision
+    private static final Map<String, Function<Transaction, Object>> COMPARED_FIELDS = new LinkedHashMap<>();
+
+    static {
+        COMPARED_FIELDS.put("fromAccount", Transaction::getFromAccount);
+        COMPARED_FIELDS.put("toAccount", Transaction::getToAccount);
+        COMPARED_FIELDS.put("type", Transaction::getType);
+        COMPARED_FIELDS.put("amount", Transaction::getAmount);
+        COMPARED_FIELDS.put("currency", Transaction::getCurrency);
+        COMPARED_FIELDS.put("fromRate", Transaction::getFromRate);
+        COMPARED_FIELDS.put("fromAccountAmount", Transaction::getFromAccountAmount);
+        COMPARED_FIELDS.put("toRate", Transaction::getToRate);
+        COMPARED_FIELDS.put("toAccountAmount", Transaction::getToAccountAmount);
+        COMPARED_FIELDS.put("fxRateVersion", Transaction::getFxRateVersion);
+        COMPARED_FIELDS.put("status", Transaction::getStatus);
+        COMPARED_FIELDS.put("description", Transaction::getDescription);
+        COMPARED_FIELDS.put("failureReason", Transaction::getFailureReason);
+        COMPARED_FIELDS.put("batchId", Transaction::getBatchId);
+        COMPARED_FIELDS.put("idempotencyKey", Transaction::getIdempotencyKey);
+        COMPARED_FIELDS.put("idempotencyRequestHash", Transaction::getIdempotencyRequestHash);
+        COMPARED_FIELDS.put("completedAt", Transaction::getCompletedAt);
+        COMPARED_FIELDS.put("eventVersion", Transaction::getEventVersion);
+    }
+
+    private final TransactionEventRepository eventRepository;
+    private final TransactionSnapshotRepository snapshotRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionEventStore eventStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int snapshotInterval;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TransactionReplayService(TransactionEventRepository eventRepository,
+                                    TransactionSnapshotRepository snapshotRepository,
+                                    TransactionRepository transactionRepository,
+                                    TransactionEventStore eventStore,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${transaction.replay.chunk-size:500}") int chunkSize,
+                                    @Value("${transaction.replay.parallelism:0}") int parallelism,
+                                    @Value("${transaction.replay.snapshot-interval:20}") int snapshotInterval) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventStore = eventStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    public StreamReplayResult replayStream(String transactionId, Mode mode) {
+        return transactionTemplate.execute(status -> {
+            // Row first: under REBUILD its lock holds off writers, so the log read next is at least as new as the row
+            Transaction row = mode == Mode.REBUILD
+                    ? transactionRepository.lockByTransactionIdIn(List.of(transactionId)).stream().findFirst().orElse(null)
+                    : transactionRepository.findByTransactionId(transactionId).orElse(null);
+            TransactionSnapshot snapshot = snapshotRepository.findById(transactionId).orElse(null);
+            long baseVersion = snapshot != null ? snapshot.getVersion() : 0L;
+            List<TransactionEvent> tail =
+                    eventRepository.findByTransactionIdAndVersionGreaterThanOrderByVersionAsc(transactionId, baseVersion);
+            if (snapshot == null && tail.isEmpty()) {
+                throw new TransactionNotFoundException("No event stream for transaction: " + transactionId);
+            }
+            return replay(transactionId, snapshot, tail, row, mode);
+        });
+    }
+
+    public ReplayReport replayAll(Mode mode) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReplayInProgressException("A replay is already running");
+        }
+
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "txn-replay-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("Starting {} replay with {} threads", mode, parallelism);
+        try {
+            String after = "";
+            while (failure.get() == null) {
+                List<String> ids = eventRepository.findStreamIdsAfter(after, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                after = ids.get(ids.size() - 1);
+
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        replayChunk(ids, mode, totals);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Wait for the chunks still running
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay interrupted", e);
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        ReplayReport report = totals.toReport(mode, (System.nanoTime() - start) / 1_000_000);
+        log.info("{} replay finished: {} streams, {} events, {} mismatches, {} rows rebuilt in {} ms",
+                mode, report.getStreams(), report.getEventsApplied(), report.getMismatches(),
+                report.getRowsRebuilt(), report.getDurationMs());
+        return report;
+    }
+
+    private void replayChunk(List<String> ids, Mode mode, Totals totals) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Rows first, locked under REBUILD, as in replayStream
+            Map<String, Transaction> rows = (mode == Mode.REBUILD
+                    ? transactionRepository.lockByTransactionIdIn(ids)
+                    : transactionRepository.findByTransactionIdIn(ids)).stream()
+                    .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+            Map<String, TransactionSnapshot> snapshots = snapshotRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(TransactionSnapshot::getTransactionId, Function.identity()));
+            Map<String, List<TransactionEvent>> tails = eventRepository.findTailsAfterSnapshots(ids).stream()
+                    .collect(Collectors.groupingBy(TransactionEvent::getTransactionId));
+
+            for (String id : ids) {
+                StreamReplayResult result = replay(id, snapshots.get(id),
+                        tails.getOrDefault(id, Collections.emptyList()), rows.get(id), mode);
+                totals.add(result);
+            }
+        });
+    }
+
+    private StreamReplayResult replay(String transactionId, TransactionSnapshot snapshot,
+                                      List<TransactionEvent> tail, Transaction row, Mode mode) {
+        Transaction base = snapshot != null ? eventStore.deserialize(snapshot.getStateData()) : null;
+        long baseVersion = snapshot != null ? snapshot.getVersion() : 0L;
+        Transaction state = eventStore.fold(base, tail);
+        long version = tail.isEmpty() ? baseVersion : tail.get(tail.size() - 1).getVersion();
+
+        List<String> differences = diff(state, row);
+        boolean rowRebuilt = false;
+        // A row with a newer event version than the log read here was written after it; it is left alone
+        if (mode == Mode.REBUILD && !differences.isEmpty() && (row == null || row.getEventVersion() <= version)) {
+            // Keeps the row's primary key when it exists; a missing row is inserted with a new id from the
+            // sequence, since only transactionId links it to the log
+            state.setId(row != null ? row.getId() : null);
+            transactionRepository.save(state);
+            rowRebuilt = true;
+        }
+
+        boolean snapshotWritten = false;
+        // Finished streams rarely grow again (only by a reversal), so they are snapshotted as soon as they end
+        if (!tail.isEmpty() && (TransactionService.isTerminal(state.getStatus()) || tail.size() >= snapshotInterval)) {
+            snapshotRepository.save(TransactionSnapshot.builder()
+                    .transactionId(transactionId)
+                    .version(version)
+                    .stateData(eventStore.serialize(state))
+                    .build());
+            snapshotWritten = true;
+        }
+
+        return StreamReplayResult.builder()
+                .transactionId(transactionId)
+                .snapshotVersion(baseVersion)
+                .eventsApplied(tail.size())
+                .version(version)
+                .consistent(differences.isEmpty())
+                .differences(differences)
+                .rowRebuilt(rowRebuilt)
+                .snapshotWritten(snapshotWritten)
+                .build();
+    }
+
+    private List<String> diff(Transaction expected, Transaction actual) {
+        if (actual == null) {
+            return List.of("row missing");
+        }
+        List<String> differences = new ArrayList<>();
+        COMPARED_FIELDS.forEach((field, getter) -> {
+            Object logValue = getter.apply(expected);
+            Object rowValue = getter.apply(actual);
+            if (!sameValue(logValue, rowValue)) {
+                differences.add(field + ": log=" + logValue + ", row=" + rowValue);
+            }
+        });
+        return differences;
+    }
+
+    private boolean sameValue(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        if (a instanceof LocalDateTime x && b instanceof LocalDateTime y) {
+            // The column keeps microseconds and rounds; the log carries the JVM clock's full precision
+            return Math.abs(ChronoUnit.NANOS.between(x, y)) < 1_000;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static final class Totals {
+
+        private final LongAdder streams = new LongAdder();
+        private final LongAdder eventsApplied = new LongAdder();
+        private final LongAdder snapshotsWritten = new LongAdder();
+        private final LongAdder mismatches = new LongAdder();
+        private final LongAdder rowsRebuilt = new LongAdder();
+        private final Queue<String> mismatchedIds = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedMismatches = new AtomicInteger();
+
+        void add(StreamReplayResult result) {
+            streams.increment();
+            eventsApplied.add(result.getEventsApplied());
+            if (result.isSnapshotWritten()) {
+                snapshotsWritten.increment();
+            }
+            if (result.isRowRebuilt()) {
+                rowsRebuilt.increment();
+            }
+            if (!result.isConsistent()) {
+                mismatches.increment();
+                if (reportedMismatches.getAndIncrement() < MAX_REPORTED_MISMATCHES) {
+                    mismatchedIds.add(result.getTransactionId());
+                }
+            }
+        }
+
+        ReplayReport toReport(Mode mode, long durationMs) {
+            return ReplayReport.builder()
+                    .mode(mode)
+                    .streams(streams.sum())
+                    .eventsApplied(eventsApplied.sum())
+                    .snapshotsWritten(snapshotsWritten.sum())
+                    .mismatches(mismatches.sum())
+                    .rowsRebuilt(rowsRebuilt.sum())
+                    .mismatchedTransactionIds(new ArrayList<>(mismatchedIds))
+                    .durationMs(durationMs)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.client.AccountClient;
+import com.banking.transactionservice.client.AccountServiceGuard;
+import com.banking.transactionservice.dto.AccountTransferRequest;
+import com.banking.transactionservice.dto.BalanceMutation;
+import com.banking.transactionservice.dto.BalanceMutationBatchRequest;
+import com.banking.transactionservice.dto.BalanceMutationPart;
+import com.banking.transactionservice.dto.BalanceMutationResult;
+import com.banking.transactionservice.dto.ReversalFailure;
+import com.banking.transactionservice.dto.ReversalReport;
+import com.banking.transactionservice.dto.ReversalRequest;
+import com.banking.transactionservice.exception.InsufficientFundsException;
+import com.banking.transactionservice.exception.TransactionNotFoundException;
+import com.banking.transactionservice.model.ReversalCandidate;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.repository.TransactionRepository;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reverses COMPLETED transactions selected by id or by a filter (account, batch, creation-time
+ * range). Matches are paged oldest first; for each page the compensating balance changes are
+ * applied, then the originals are marked REVERSED with a TRANSACTION_REVERSED event each.
+ *
+ * Deposits and withdrawals are compensated through the batch mutation API, netted to one change
+ * per account (with every transaction kept as a part) and sent in parallel calls of
+ * {@code mutations-per-call} accounts. An account whose net change is rejected is retried one
+ * change at a time, credits first, so only the changes that really can't be applied fail.
+ * Transfers are compensated by one atomic reverse transfer each, also in parallel, so neither
+ * side can be undone alone.
+ *
+ * Every compensating change uses the reference {@code <transactionId>/reversal}, which
+ * account-service applies at most once, and only COMPLETED rows are marked. Repeating a request
+ * therefore retries what failed and leaves everything else as it is.
+ */
+@Service
+@Slf4j
+public class TransactionReversalService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    // Account-service accepts at most this many mutations per batch call
+    private static final int MAX_MUTATIONS_PER_CALL = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final AccountClient accountClient;
+    private final AccountServiceGuard accountServiceGuard;
+    private final long maxTransactions;
+    private final int pageSize;
+    private final int mutationsPerCall;
+    private final int parallelism;
+
+    public TransactionReversalService(TransactionRepository transactionRepository,
+                                      TransactionService transactionService,
+                                      AccountClient accountClient,
+                                      AccountServiceGuard accountServiceGuard,
+                                      @Value("${transaction.reversal.max-transactions:100000}") long maxTransactions,
+                                      @Value("${transaction.reversal.page-size:1000}") int pageSize,
+                                      @Value("${transaction.reversal.mutations-per-call:500}") int mutationsPerCall,
+                                      @Value("${transaction.reversal.parallelism:8}") int parallelism) {
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.accountClient = accountClient;
+        this.accountServiceGuard = accountServiceGuard;
+        this.maxTransactions = maxTransactions;
+        this.pageSize = Math.max(1, pageSize);
+        this.mutationsPerCall = Math.max(1, Math.min(mutationsPerCall, MAX_MUTATIONS_PER_CALL));
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public ReversalReport reverse(ReversalRequest request) {
+        validate(request);
+        long matching = transactionRepository.countReversible(request.getTransactionId(), request.getBatchId(),
+                request.getAccountNumber(), request.getFrom(), request.getTo());
+        if (request.getTransactionId() != null && matching == 0) {
+            throw new TransactionNotFoundException("Transaction not found: " + request.getTransactionId());
+        }
+        if (matching > maxTransactions) {
+            throw new IllegalArgumentException(
+                    "Reversal matches " + matching + " transactions, the maximum is " + maxTransactions);
+        }
+
+        log.info("Reversing {} matching transactions: {}", matching, request.getReason());
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "txn-reversal-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<ReversalCandidate> page = transactionRepository.findReversible(request.getTransactionId(),
+                    request.getBatchId(), request.getAccountNumber(), request.getFrom(), request.getTo(),
+                    Limit.of(pageSize));
+            while (!page.isEmpty()) {
+                reversePage(page, request.getReason(), pool, totals);
+                if (page.size() < pageSize) {
+                    break;
+                }
+                ReversalCandidate last = page.get(page.size() - 1);
+                page = transactionRepository.findReversibleAfter(request.getTransactionId(), request.getBatchId(),
+                        request.getAccountNumber(), request.getFrom(), request.getTo(),
+                        last.createdAt(), last.id(), Limit.of(pageSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reversal interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ReversalReport report = totals.toReport(startedAt, (System.nanoTime() - start) / 1_000_000);
+        log.info("Reversal finished: {} matched, {} reversed, {} already reversed, {} not completed, {} failed in {} ms",
+                report.getMatched(), report.getReversed(), report.getAlreadyReversed(), report.getNotCompleted(),
+                report.getFailed(), report.getDurationMs());
+        return report;
+    }
+
+    private void validate(ReversalRequest request) {
+        if (request.getTransactionId() == null && request.getAccountNumber() == null
+                && request.getBatchId() == null && request.getFrom() == null && request.getTo() == null) {
+            throw new IllegalArgumentException("A transaction ID, account number, batch ID or time range is required");
+        }
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("Time range start must be before its end");
+        }
+    }
+
+    private void reversePage(List<ReversalCandidate> page, String reason, ExecutorService pool, Totals totals)
+            throws InterruptedException {
+        totals.matched.add(page.size());
+        Map<String, List<ReversalCandidate>> byAccount = new LinkedHashMap<>();
+        List<ReversalCandidate> transfers = new ArrayList<>();
+        List<String> completed = new ArrayList<>(page.size());
+        for (ReversalCandidate candidate : page) {
+            switch (candidate.status()) {
+                case COMPLETED -> {
+                    completed.add(candidate.transactionId());
+                    if (candidate.type() == Transaction.TransactionType.TRANSFER) {
+                        transfers.add(candidate);
+                    } else {
+                        byAccount.computeIfAbsent(candidate.fromAccount(), account -> new ArrayList<>()).add(candidate);
+                    }
+                }
+                case REVERSED -> totals.alreadyReversed.increment();
+                default -> totals.notCompleted.increment();
+            }
+        }
+        if (completed.isEmpty()) {
+            return;
+        }
+
+        Set<String> compensated = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        List<List<ReversalCandidate>> groups = new ArrayList<>(byAccount.values());
+        for (int from = 0; from < groups.size(); from += mutationsPerCall) {
+            List<List<ReversalCandidate>> slice = groups.subList(from, Math.min(from + mutationsPerCall, groups.size()));
+            tasks.add(task(slice.stream().flatMap(List::stream).collect(Collectors.toList()), totals,
+                    () -> compensateNetted(slice, compensated, totals)));
+        }
+        for (ReversalCandidate transfer : transfers) {
+            tasks.add(task(List.of(transfer), totals, () -> compensateTransfer(transfer, compensated, totals)));
+        }
+        pool.invokeAll(tasks);
+
+        List<String> marking = completed.stream().filter(compensated::contains).collect(Collectors.toList());
+        if (marking.isEmpty()) {
+            return;
+        }
+        Set<String> reversed = transactionService.markReversed(marking, reason);
+        for (String transactionId : marking) {
+            if (reversed.contains(transactionId)) {
+                totals.reversed.increment();
+            } else {
+                // Only possible if the row was archived or deleted mid-reversal; the money has been given back
+                totals.fail(transactionId, "Compensated, but the transaction could no longer be marked REVERSED");
+            }
+        }
+    }
+
+    // One batch call for a slice of accounts, each with its changes netted into one mutation
+    private void compensateNetted(List<List<ReversalCandidate>> groups, Set<String> compensated, Totals totals) {
+        List<BalanceMutation> mutations = new ArrayList<>(groups.size());
+        for (List<ReversalCandidate> group : groups) {
+            if (group.size() == 1) {
+                mutations.add(compensation(group.get(0)));
+                continue;
+            }
+            BigDecimal net = BigDecimal.ZERO;
+            List<BalanceMutationPart> parts = new ArrayList<>(group.size());
+            for (ReversalCandidate candidate : group) {
+                BalanceMutation change = compensation(candidate);
+                net = net.add(change.getAmount());
+                parts.add(new BalanceMutationPart(change.getReference(), change.getAmount()));
+            }
+            ReversalCandidate first = group.get(0);
+            mutations.add(new BalanceMutation(TransactionService.reversalReference(first.transactionId()) +
+                    "+" + (group.size() - 1), first.fromAccount(), net, parts));
+        }
+
+        List<BalanceMutationResult> results = apply(mutations);
+        List<ReversalCandidate> fallback = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            List<ReversalCandidate> group = groups.get(i);
+            BalanceMutationResult result = results.get(i);
+            if (result.getStatus() == BalanceMutationResult.Status.APPLIED) {
+                group.forEach(candidate -> compensated.add(candidate.transactionId()));
+            } else if (group.size() > 1 && result.getStatus() == BalanceMutationResult.Status.INSUFFICIENT_FUNDS) {
+                fallback.addAll(group);
+            } else {
+                group.forEach(candidate -> totals.fail(candidate.transactionId(), result.getMessage()));
+            }
+        }
+        if (fallback.isEmpty()) {
+            return;
+        }
+
+        // Applied in request order, so crediting first leaves the most room for the debits
+        fallback.sort(Comparator.comparing((ReversalCandidate candidate) -> compensation(candidate).getAmount().signum())
+                .reversed());
+        for (int from = 0; from < fallback.size(); from += MAX_MUTATIONS_PER_CALL) {
+            List<ReversalCandidate> slice = fallback.subList(from, Math.min(from + MAX_MUTATIONS_PER_CALL, fallback.size()));
+            List<BalanceMutationResult> individual =
+                    apply(slice.stream().map(this::compensation).collect(Collectors.toList()));
+            for (int i = 0; i < slice.size(); i++) {
+                if (individual.get(i).getStatus() == BalanceMutationResult.Status.APPLIED) {
+                    compensated.add(slice.get(i).transactionId());
+                } else {
+                    totals.fail(slice.get(i).transactionId(), individual.get(i).getMessage());
+                }
+            }
+        }
+    }
+
+    // Takes back what the destination was credited and returns what the source was debited, each in its own currency
+    private void compensateTransfer(ReversalCandidate transfer, Set<String> compensated, Totals totals) {
+        AccountTransferRequest request = new AccountTransferRequest(transfer.toAccount(), transfer.fromAccount(),
+                transfer.toAmount(), TransactionService.reversalReference(transfer.transactionId()),
+                transfer.fromAmount());
+        try {
+            accountServiceGuard.run(() -> accountClient.transfer(request));
+            compensated.add(transfer.transactionId());
+        } catch (InsufficientFundsException | FeignException.UnprocessableEntity e) {
+            totals.fail(transfer.transactionId(), "Insufficient funds in account: " + transfer.toAccount());
+        }
+    }
+
+    private List<BalanceMutationResult> apply(List<BalanceMutation> mutations) {
+        return accountServiceGuard.execute(() ->
+                accountClient.applyBalanceMutations(new BalanceMutationBatchRequest(mutations))).getResults();
+    }
+
+    // The opposite of the original change: a deposit is debited back, a withdrawal credited back
+    private BalanceMutation compensation(ReversalCandidate candidate) {
+        BigDecimal amount = candidate.type() == Transaction.TransactionType.DEPOSIT
+                ? candidate.fromAmount().negate()
+                : candidate.fromAmount();
+        return new BalanceMutation(TransactionService.reversalReference(candidate.transactionId()),
+                candidate.fromAccount(), amount);
+    }
+
+    // An account-service call that fails outright fails every transaction it carried
+    private Callable<Void> task(List<ReversalCandidate> carried, Totals totals, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.warn("Reversal call for {} transactions failed: {}", carried.size(), e.getMessage());
+                carried.forEach(candidate -> totals.fail(candidate.transactionId(), e.getMessage()));
+            }
+            return null;
+        };
+    }
+
+    private static final class Totals {
+
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder reversed = new LongAdder();
+        private final LongAdder alreadyReversed = new LongAdder();
+        private final LongAdder notCompleted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final List<ReversalFailure> failures = new ArrayList<>();
+
+        void fail(String transactionId, String reason) {
+            failed.increment();
+            synchronized (failures) {
+                if (failures.size() < MAX_REPORTED_FAILURES) {
+                    failures.add(new ReversalFailure(transactionId, reason));
+                }
+            }
+        }
+
+        ReversalReport toReport(LocalDateTime startedAt, long durationMs) {
+            synchronized (failures) {
+                return ReversalReport.builder()
+                        .startedAt(startedAt)
+                        .matched(matched.sum())
+                        .reversed(reversed.sum())
+                        .alreadyReversed(alreadyReversed.sum())
+                        .notCompleted(notCompleted.sum())
+                        .failed(failed.sum())
+                        .failures(new ArrayList<>(failures))
+                        .durationMs(durationMs)
+                        .build();
+            }
+        }
+    }
+}
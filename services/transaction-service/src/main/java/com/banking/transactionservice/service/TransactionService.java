@@ -1,29 +1,71 @@
 package com.banking.transactionservice.service;
 
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+import com.banking.transactionservice.archive.TransactionArchive;
 import com.banking.transactionservice.client.AccountClient;
+import com.banking.transactionservice.client.AccountCurrencies;
+import com.banking.transactionservice.client.AccountServiceGuard;
+import com.banking.transactionservice.client.BalanceMutationCoalescer;
+import com.banking.transactionservice.dto.AccountTransferRequest;
+import com.banking.transactionservice.dto.AppliedMutationLookupRequest;
+import com.banking.transactionservice.dto.BalanceMutation;
+import com.banking.transactionservice.dto.BalanceMutationBatchRequest;
+import com.banking.transactionservice.dto.BalanceMutationResult;
+import com.banking.transactionservice.dto.BatchItemResult;
+import com.banking.transactionservice.dto.BatchTransactionRequest;
+import com.banking.transactionservice.dto.BatchTransactionResponse;
+import com.banking.transactionservice.dto.TransactionPage;
 import com.banking.transactionservice.dto.TransactionRequest;
 import com.banking.transactionservice.dto.TransactionResponse;
-import com.banking.transactionservice.event.TransactionCompletedEvent;
-import com.banking.transactionservice.event.TransactionCreatedEvent;
+import com.banking.transactionservice.exception.BalanceChangeOutcomeUnknownException;
+import com.banking.transactionservice.exception.EventStoreConflictException;
 import com.banking.transactionservice.exception.InsufficientFundsException;
 import com.banking.transactionservice.exception.TransactionNotFoundException;
+import com.banking.transactionservice.fx.FxRateTable;
+import com.banking.transactionservice.fx.FxRates;
 import com.banking.transactionservice.kafka.TransactionEventProducer;
+import com.banking.transactionservice.model.ArchivedTransaction;
 import com.banking.transactionservice.model.Transaction;
 import com.banking.transactionservice.model.TransactionEvent;
-import com.banking.transactionservice.repository.TransactionEventRepository;
 import com.banking.transactionservice.repository.TransactionRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,114 +73,526 @@ import java.util.stream.Collectors;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final TransactionEventRepository transactionEventRepository;
+    private final TransactionEventStore eventStore;
     private final TransactionEventProducer eventProducer;
     private final AccountClient accountClient;
+    private final BalanceMutationCoalescer mutationCoalescer;
+    private final AccountServiceGuard accountServiceGuard;
+    private final AccountCurrencies accountCurrencies;
+    private final FxRateTable fxRates;
+    private final TransactionProcessingPipeline processingPipeline;
+    private final TransactionIdGenerator idGenerator;
+    private final TransactionMetrics metrics;
+    private final TransactionStatusStream statusStream;
+    private final TransactionArchive archive;
+    private final Validator validator;
+    private final EntityManager entityManager;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<TransactionService> self;
+
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Transaction::getId, Comparator.reverseOrder());
+
+    @Value("${transaction.batch.max-size:10000}")
+    private int maxBatchSize;
 
     @Transactional
     public TransactionResponse createTransaction(TransactionRequest request) {
+        return createTransaction(request, null, null);
+    }
+
+    @Transactional
+    public TransactionResponse createTransaction(TransactionRequest request, String idempotencyKey, String requestHash) {
         log.info("Creating transaction: {} from account {}", request.getType(), request.getFromAccount());
 
         // Validate transaction type
         validateTransactionRequest(request);
 
-        // Generate unique transaction ID
-        String transactionId = UUID.randomUUID().toString();
+        Transaction.TransactionType type = request.getType();
+        long started = metrics.started(TransactionMetrics.Operation.CREATE);
+        boolean succeeded = false;
+        try {
+            // Generate unique transaction ID
+            String transactionId = idGenerator.nextId();
 
-        // Create transaction entity
-        Transaction transaction = Transaction.builder()
-                .transactionId(transactionId)
-                .fromAccount(request.getFromAccount())
-                .toAccount(request.getToAccount())
-                .type(request.getType())
-                .amount(request.getAmount())
-                .currency(request.getCurrency())
-                .status(Transaction.TransactionStatus.PENDING)
-                .description(request.getDescription())
-                .build();
+            // Reserve worker capacity up front so an overloaded pipeline rejects before anything is written
+            if (processingPipeline.isEnabled()) {
+                processingPipeline.submitOnCommit(transactionId, sequencingKey(request));
+            }
+
+            // Create transaction entity
+            Transaction transaction = buildTransaction(request, transactionId, null);
+            transaction.setIdempotencyKey(idempotencyKey);
+            transaction.setIdempotencyRequestHash(requestHash);
+
+            // Save transaction; flush keyed inserts so a duplicate key fails here rather than at commit
+            Transaction savedTransaction = metrics.time(TransactionMetrics.Operation.CREATE,
+                    TransactionMetrics.Stage.PERSIST, type, () -> idempotencyKey != null
+                            ? transactionRepository.saveAndFlush(transaction)
+                            : transactionRepository.save(transaction));
+            metrics.transition(type, null, Transaction.TransactionStatus.PENDING);
+
+            // Store event (Event Sourcing)
+            metrics.time(TransactionMetrics.Operation.CREATE, TransactionMetrics.Stage.EVENT_STORE, type,
+                    () -> eventStore.append(savedTransaction, "TRANSACTION_CREATED"));
+
+            // Publish event to Kafka
+            metrics.time(TransactionMetrics.Operation.CREATE, TransactionMetrics.Stage.OUTBOX, type,
+                    () -> publishTransactionCreatedEvent(savedTransaction));
+
+            log.info("Transaction created: {}", transactionId);
+
+            // In async mode the pipeline picks the transaction up after commit and the caller gets PENDING back
+            if (!processingPipeline.isEnabled()) {
+                try {
+                    processTransaction(transactionId);
+                } catch (BalanceChangeOutcomeUnknownException e) {
+                    // Committed as PROCESSING; recovery settles it and the caller gets PROCESSING back
+                    log.warn("Transaction {} left for recovery: {}", transactionId, e.getMessage());
+                }
+            }
+
+            succeeded = true;
+            return mapToResponse(savedTransaction);
+        } finally {
+            metrics.finished(TransactionMetrics.Operation.CREATE, type, succeeded, started);
+        }
+    }
+
+    /**
+     * Inserts the batch as PENDING in one transaction. With the pipeline off, the items are then
+     * processed one by one in their own transactions, after the inserts are committed.
+     */
+    public BatchTransactionResponse createTransactionBatch(BatchTransactionRequest request) {
+        List<TransactionRequest> items = request.getTransactions();
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch contains " + items.size() + " transactions, the maximum is " + maxBatchSize);
+        }
 
-        // Save transaction
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        BatchTransactionResponse response = transactionTemplate.execute(status -> insertBatch(request));
+        if (!processingPipeline.isEnabled()) {
+            processBatchInline(response.getResults());
+        }
+        return response;
+    }
 
-        // Store event (Event Sourcing)
-        saveTransactionEvent(transactionId, "TRANSACTION_CREATED", savedTransaction);
+    private BatchTransactionResponse insertBatch(BatchTransactionRequest request) {
+        List<TransactionRequest> items = request.getTransactions();
+        String batchId = request.getBatchId() != null ? request.getBatchId() : UUID.randomUUID().toString();
+        log.info("Creating transaction batch {} with {} items", batchId, items.size());
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        List<Transaction> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<TransactionProcessingPipeline.Submission> accepted = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            TransactionRequest item = items.get(i);
+            List<String> errors = validateBatchItem(item);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.builder().index(i).errors(errors).build());
+                continue;
+            }
 
-        // Publish event to Kafka
-        publishTransactionCreatedEvent(savedTransaction);
+            String transactionId = idGenerator.nextId();
+            chunk.add(buildTransaction(item, transactionId, batchId));
+            accepted.add(new TransactionProcessingPipeline.Submission(transactionId, sequencingKey(item)));
+            results.add(BatchItemResult.builder()
+                    .index(i)
+                    .transactionId(transactionId)
+                    .status(Transaction.TransactionStatus.PENDING)
+                    .errors(List.of())
+                    .build());
 
-        log.info("Transaction created: {}", transactionId);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                persistBatchChunk(chunk);
+            }
+        }
+        persistBatchChunk(chunk);
+
+        if (processingPipeline.isEnabled()) {
+            processingPipeline.submitBatchOnCommit(accepted);
+        }
 
-        // Process the transaction asynchronously (in real-world, this would be async)
-        processTransaction(transactionId);
+        log.info("Transaction batch {} created: {} accepted, {} rejected",
+                batchId, accepted.size(), items.size() - accepted.size());
 
-        return mapToResponse(savedTransaction);
+        return BatchTransactionResponse.builder()
+                .batchId(batchId)
+                .accepted(accepted.size())
+                .rejected(items.size() - accepted.size())
+                .results(results)
+                .build();
     }
 
-    @Transactional
+    // Handles failures like the pipeline: a failed item is marked FAILED and the rest of the batch carries on
+    private void processBatchInline(List<BatchItemResult> results) {
+        TransactionService proxy = self.getObject();
+        for (BatchItemResult result : results) {
+            String transactionId = result.getTransactionId();
+            if (transactionId == null) {
+                continue;
+            }
+            try {
+                proxy.processTransaction(transactionId);
+                result.setStatus(Transaction.TransactionStatus.COMPLETED);
+            } catch (BalanceChangeOutcomeUnknownException e) {
+                // Left PROCESSING for recovery
+                result.setStatus(Transaction.TransactionStatus.PROCESSING);
+            } catch (EventStoreConflictException e) {
+                // Another writer owns this stream and decides the outcome; stays PENDING here
+                log.warn("Skipping transaction {}: {}", transactionId, e.getMessage());
+            } catch (RuntimeException e) {
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                result.setErrors(List.of(reason));
+                // processTransaction rolls back its own FAILED update when it rethrows, so persist it separately
+                try {
+                    proxy.failTransaction(transactionId, reason);
+                    result.setStatus(Transaction.TransactionStatus.FAILED);
+                } catch (RuntimeException failure) {
+                    log.error("Could not mark transaction {} as FAILED", transactionId, failure);
+                }
+            } finally {
+                // The request's persistence context would otherwise keep every processed transaction
+                entityManager.clear();
+            }
+        }
+    }
+
+    // Inserts go out as JDBC batches on flush; clearing keeps the persistence context from growing with the file
+    private void persistBatchChunk(List<Transaction> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionRepository.saveAll(chunk);
+        chunk.forEach(transaction -> metrics.transition(transaction.getType(), null, Transaction.TransactionStatus.PENDING));
+        eventStore.appendAll(chunk, "TRANSACTION_CREATED");
+        eventProducer.publishTransactionsCreated(chunk.stream()
+                .map(TransactionService::buildTransactionCreatedEvent)
+                .collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    // An unknown outcome keeps the PROCESSING update so recovery can settle it with account-service
+    @Transactional(noRollbackFor = BalanceChangeOutcomeUnknownException.class)
     public void processTransaction(String transactionId) {
         log.info("Processing transaction: {}", transactionId);
 
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+        Transaction.TransactionType type = transaction.getType();
 
-        // Update status to PROCESSING
-        transaction.setStatus(Transaction.TransactionStatus.PROCESSING);
+        // A recovered transaction may have been finished by another worker in the meantime
+        if (isTerminal(transaction.getStatus())) {
+            log.warn("Transaction {} already in terminal state {}, not processing", transactionId, transaction.getStatus());
+            return;
+        }
+
+        long started = metrics.started(TransactionMetrics.Operation.PROCESS);
+        boolean succeeded = false;
+        try {
+            // Update status to PROCESSING
+            changeStatus(transaction, Transaction.TransactionStatus.PROCESSING);
+            persistAndRecord(TransactionMetrics.Operation.PROCESS, transaction, "TRANSACTION_PROCESSING");
+
+            try {
+                // Execute the transaction based on type
+                metrics.time(TransactionMetrics.Operation.PROCESS, TransactionMetrics.Stage.ACCOUNT_SERVICE, type,
+                        () -> execute(transaction));
+
+                // Mark as completed
+                changeStatus(transaction, Transaction.TransactionStatus.COMPLETED);
+                transaction.setCompletedAt(LocalDateTime.now());
+                persistAndRecord(TransactionMetrics.Operation.PROCESS, transaction, "TRANSACTION_COMPLETED");
+
+                // Publish completion event
+                metrics.time(TransactionMetrics.Operation.PROCESS, TransactionMetrics.Stage.OUTBOX, type,
+                        () -> publishTransactionCompletedEvent(transaction));
+
+                log.info("Transaction completed successfully: {}", transactionId);
+                succeeded = true;
+
+            } catch (BalanceChangeOutcomeUnknownException e) {
+                // The money may have moved, so failing here could lose it
+                throw e;
+            } catch (Exception e) {
+                log.error("Transaction failed: {}", transactionId, e);
+                changeStatus(transaction, Transaction.TransactionStatus.FAILED);
+                transaction.setFailureReason(e.getMessage());
+                persistAndRecord(TransactionMetrics.Operation.PROCESS, transaction, "TRANSACTION_FAILED");
+                throw e;
+            }
+        } finally {
+            metrics.finished(TransactionMetrics.Operation.PROCESS, type, succeeded, started);
+        }
+    }
+
+    @Transactional
+    public void failTransaction(String transactionId, String reason) {
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+
+        if (isTerminal(transaction.getStatus())) {
+            log.warn("Transaction {} already in terminal state {}", transactionId, transaction.getStatus());
+            return;
+        }
+
+        changeStatus(transaction, Transaction.TransactionStatus.FAILED);
+        transaction.setFailureReason(reason);
         transactionRepository.save(transaction);
-        saveTransactionEvent(transactionId, "TRANSACTION_PROCESSING", transaction);
+        eventStore.append(transaction, "TRANSACTION_FAILED");
+
+        // Let the customer know, since an async caller never sees the error
+        publishTransactionCompletedEvent(transaction);
+    }
+
+    /**
+     * Undoes a transaction whose balance change reached account-service but which never completed
+     * here: the opposite change is applied under the reference {@code <transactionId>/reversal},
+     * which account-service deduplicates like any other, and the transaction becomes REVERSED.
+     * The amounts reversed are those account-service recorded, since a converted amount may never
+     * have been saved here. Returns false, leaving the transaction as it was, if the reversal would
+     * overdraw an account.
+     */
+    @Transactional
+    public boolean reverseTransaction(String transactionId, String reason) {
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
 
+        if (isTerminal(transaction.getStatus())) {
+            log.warn("Transaction {} already in terminal state {}", transactionId, transaction.getStatus());
+            return false;
+        }
+
+        String reference = reversalReference(transactionId);
+        Map<String, BigDecimal> applied = appliedChanges(transactionId);
+        BigDecimal fromChange = applied.getOrDefault(transaction.getFromAccount(),
+                transaction.getType() == Transaction.TransactionType.DEPOSIT
+                        ? transaction.appliedFromAmount()
+                        : transaction.appliedFromAmount().negate());
+        log.info("Reversing transaction {}: {}", transactionId, reason);
         try {
-            // Execute the transaction based on type
             switch (transaction.getType()) {
-                case DEPOSIT -> executeDeposit(transaction);
-                case WITHDRAWAL -> executeWithdrawal(transaction);
-                case TRANSFER -> executeTransfer(transaction);
+                case DEPOSIT, WITHDRAWAL -> reverseBalanceChange(transaction.getFromAccount(), fromChange.negate(), reference);
+                case TRANSFER -> {
+                    BigDecimal toChange = applied.getOrDefault(transaction.getToAccount(), transaction.appliedToAmount());
+                    AccountTransferRequest transfer = new AccountTransferRequest(transaction.getToAccount(),
+                            transaction.getFromAccount(), toChange, reference, fromChange.negate());
+                    accountServiceGuard.run(() -> accountClient.transfer(transfer));
+                }
             }
+        } catch (InsufficientFundsException | FeignException.UnprocessableEntity e) {
+            log.warn("Cannot reverse transaction {}: {}", transactionId, e.getMessage());
+            return false;
+        }
 
-            // Mark as completed
-            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
-            transaction.setCompletedAt(LocalDateTime.now());
-            transactionRepository.save(transaction);
-            saveTransactionEvent(transactionId, "TRANSACTION_COMPLETED", transaction);
+        changeStatus(transaction, Transaction.TransactionStatus.REVERSED);
+        transaction.setFailureReason(reason);
+        transactionRepository.save(transaction);
+        eventStore.append(transaction, "TRANSACTION_REVERSED");
+        publishTransactionCompletedEvent(transaction);
+        return true;
+    }
 
-            // Publish completion event
-            publishTransactionCompletedEvent(transaction);
+    /**
+     * Marks COMPLETED transactions whose compensating balance changes have been applied as REVERSED,
+     * each with its own TRANSACTION_REVERSED event. The rows are locked first, so a transaction
+     * reversed by two requests at once gets one event. Returns the ids that are REVERSED afterwards.
+     */
+    @Transactional
+    public Set<String> markReversed(Collection<String> transactionIds, String reason) {
+        List<Transaction> reversing = new ArrayList<>(transactionIds.size());
+        Set<String> reversed = new HashSet<>();
+        for (Transaction transaction : transactionRepository.lockByTransactionIdIn(transactionIds)) {
+            if (transaction.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+                changeStatus(transaction, Transaction.TransactionStatus.REVERSED);
+                transaction.setFailureReason(reason);
+                reversing.add(transaction);
+            }
+            if (transaction.getStatus() == Transaction.TransactionStatus.REVERSED) {
+                reversed.add(transaction.getTransactionId());
+            }
+        }
+        if (reversing.isEmpty()) {
+            return reversed;
+        }
 
-            log.info("Transaction completed successfully: {}", transactionId);
+        transactionRepository.saveAll(reversing);
+        eventStore.appendAll(reversing, "TRANSACTION_REVERSED");
+        reversing.forEach(this::publishTransactionCompletedEvent);
+        log.info("Marked {} transactions as reversed", reversing.size());
+        return reversed;
+    }
 
-        } catch (Exception e) {
-            log.error("Transaction failed: {}", transactionId, e);
-            transaction.setStatus(Transaction.TransactionStatus.FAILED);
-            transaction.setFailureReason(e.getMessage());
-            transactionRepository.save(transaction);
-            saveTransactionEvent(transactionId, "TRANSACTION_FAILED", transaction);
-            throw e;
+    // Signed balance change account-service applied to each account under the transaction's reference
+    private Map<String, BigDecimal> appliedChanges(String transactionId) {
+        Map<String, BigDecimal> changes = new HashMap<>();
+        accountServiceGuard.execute(() -> accountClient.findAppliedMutations(
+                        new AppliedMutationLookupRequest(List.of(transactionId))))
+                .forEach(mutation -> changes.merge(mutation.getAccountNumber(), mutation.getAmount(), BigDecimal::add));
+        return changes;
+    }
+
+    // Account-service reference for the change undoing a transaction, so a repeated reversal is skipped
+    static String reversalReference(String transactionId) {
+        return transactionId + "/reversal";
+    }
+
+    static boolean isTerminal(Transaction.TransactionStatus status) {
+        return status == Transaction.TransactionStatus.COMPLETED
+                || status == Transaction.TransactionStatus.FAILED
+                || status == Transaction.TransactionStatus.REVERSED;
+    }
+
+    // Bypasses the coalescer: a reversal must not be netted with new changes it could then fail alongside
+    private void reverseBalanceChange(String accountNumber, BigDecimal amount, String reference) {
+        BalanceMutationBatchRequest request =
+                new BalanceMutationBatchRequest(List.of(new BalanceMutation(reference, accountNumber, amount)));
+        BalanceMutationResult result = accountServiceGuard.execute(() -> accountClient.applyBalanceMutations(request))
+                .getResults().get(0);
+        switch (result.getStatus()) {
+            case APPLIED -> log.debug("Balance of {} is now {}", accountNumber, result.getBalance());
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException(result.getMessage());
+            default -> throw new IllegalStateException(result.getMessage());
+        }
+    }
+
+    private void execute(Transaction transaction) {
+        convert(transaction);
+        switch (transaction.getType()) {
+            case DEPOSIT -> executeDeposit(transaction);
+            case WITHDRAWAL -> executeWithdrawal(transaction);
+            case TRANSFER -> executeTransfer(transaction);
+        }
+    }
+
+    /**
+     * Records what each side's account is changed by, in that account's currency. Both sides of a
+     * transfer use one rate snapshot; the rates themselves come from memory, and account currencies
+     * are cached after their first lookup.
+     */
+    private void convert(Transaction transaction) {
+        FxRates rates = fxRates.current();
+        boolean converted = convertFromSide(transaction, rates);
+        if (transaction.getType() == Transaction.TransactionType.TRANSFER) {
+            converted |= convertToSide(transaction, rates);
         }
+        transaction.setFxRateVersion(converted ? rates.version() : null);
+    }
+
+    private boolean convertFromSide(Transaction transaction, FxRates rates) {
+        String accountCurrency = accountCurrencies.currencyOf(transaction.getFromAccount());
+        BigDecimal rate = rate(rates, transaction.getCurrency(), accountCurrency);
+        transaction.setFromRate(rate);
+        transaction.setFromAccountAmount(applyRate(transaction.getAmount(), rate));
+        return isConversion(transaction.getCurrency(), accountCurrency);
+    }
+
+    private boolean convertToSide(Transaction transaction, FxRates rates) {
+        String accountCurrency = accountCurrencies.currencyOf(transaction.getToAccount());
+        BigDecimal rate = rate(rates, transaction.getCurrency(), accountCurrency);
+        transaction.setToRate(rate);
+        transaction.setToAccountAmount(applyRate(transaction.getAmount(), rate));
+        return isConversion(transaction.getCurrency(), accountCurrency);
+    }
+
+    // A transaction without a currency is applied as is, as before conversion existed
+    private static BigDecimal rate(FxRates rates, String currency, String accountCurrency) {
+        return isConversion(currency, accountCurrency) ? rates.rate(currency, accountCurrency) : BigDecimal.ONE;
+    }
+
+    private static boolean isConversion(String currency, String accountCurrency) {
+        return currency != null && !currency.equalsIgnoreCase(accountCurrency);
+    }
+
+    private static BigDecimal applyRate(BigDecimal amount, BigDecimal rate) {
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    // Every change to a stored transaction starts here, so its event baseline is taken before anything changes
+    private void changeStatus(Transaction transaction, Transaction.TransactionStatus status) {
+        transaction.ensureEventBaseline();
+        metrics.transition(transaction.getType(), transaction.getStatus(), status);
+        transaction.setStatus(status);
+        statusStream.publishOnCommit(transaction);
+    }
+
+    private void persistAndRecord(TransactionMetrics.Operation operation, Transaction transaction, String eventType) {
+        metrics.time(operation, TransactionMetrics.Stage.PERSIST, transaction.getType(),
+                () -> transactionRepository.save(transaction));
+        metrics.time(operation, TransactionMetrics.Stage.EVENT_STORE, transaction.getType(),
+                () -> eventStore.append(transaction, eventType));
     }
 
     private void executeDeposit(Transaction transaction) {
-        log.info("Executing deposit: {} to account {}", transaction.getAmount(), transaction.getFromAccount());
+        log.info("Executing deposit: {} to account {}", transaction.getFromAccountAmount(), transaction.getFromAccount());
 
         // Call Account Service to update balance
-        accountClient.updateBalance(transaction.getFromAccount(), transaction.getAmount());
+        applyBalanceChange(transaction.getFromAccount(), transaction.getFromAccountAmount(), transaction.getTransactionId());
     }
 
     private void executeWithdrawal(Transaction transaction) {
-        log.info("Executing withdrawal: {} from account {}", transaction.getAmount(), transaction.getFromAccount());
+        log.info("Executing withdrawal: {} from account {}", transaction.getFromAccountAmount(), transaction.getFromAccount());
 
         // Deduct from account (negative amount)
-        accountClient.updateBalance(transaction.getFromAccount(), transaction.getAmount().negate());
+        applyBalanceChange(transaction.getFromAccount(), transaction.getFromAccountAmount().negate(), transaction.getTransactionId());
     }
 
     private void executeTransfer(Transaction transaction) {
         log.info("Executing transfer: {} from {} to {}",
                 transaction.getAmount(), transaction.getFromAccount(), transaction.getToAccount());
 
-        // Deduct from source account
-        accountClient.updateBalance(transaction.getFromAccount(), transaction.getAmount().negate());
+        // Single round trip; account-service debits and credits atomically, each side in its own currency
+        AccountTransferRequest transfer = new AccountTransferRequest(transaction.getFromAccount(),
+                transaction.getToAccount(), transaction.getFromAccountAmount(), transaction.getTransactionId(),
+                transaction.getToAccountAmount());
+        callAccountService(() -> accountClient.transfer(transfer), transaction.getTransactionId());
+    }
+
+    // Credits commute, so when they are netted deposits skip per-account ordering and can share a net change
+    private String sequencingKey(TransactionRequest request) {
+        return sequencingKey(request.getType(), request.getFromAccount());
+    }
+
+    String sequencingKey(Transaction.TransactionType type, String fromAccount) {
+        if (type == Transaction.TransactionType.DEPOSIT && mutationCoalescer.isNettingEnabled()) {
+            return null;
+        }
+        return fromAccount;
+    }
+
+    // Goes through the coalescer when enabled so concurrent changes share one account-service call
+    private void applyBalanceChange(String accountNumber, BigDecimal amount, String reference) {
+        if (!mutationCoalescer.isEnabled()) {
+            callAccountService(() -> accountClient.updateBalance(accountNumber, amount, reference), reference);
+            return;
+        }
+
+        BalanceMutationResult result = mutationCoalescer.submitAndWait(accountNumber, amount, reference);
+
+        switch (result.getStatus()) {
+            case APPLIED -> log.debug("Balance of {} is now {}", accountNumber, result.getBalance());
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException(result.getMessage());
+            default -> throw new IllegalStateException(result.getMessage());
+        }
+    }
 
-        // Add to destination account
-        accountClient.updateBalance(transaction.getToAccount(), transaction.getAmount());
+    // A call that failed without a verdict may still have moved money, so it is not reported as a plain failure
+    private void callAccountService(Runnable call, String reference) {
+        try {
+            accountServiceGuard.run(call);
+        } catch (RuntimeException e) {
+            if (AccountServiceGuard.mayHaveApplied(e)) {
+                throw new BalanceChangeOutcomeUnknownException("No verdict from account-service for " + reference, e);
+            }
+            throw e;
+        }
     }
 
     public TransactionResponse getTransactionById(Long id) {
@@ -150,37 +604,166 @@ public class TransactionService {
 
     public TransactionResponse getTransactionByTransactionId(String transactionId) {
         log.info("Fetching transaction by transaction ID: {}", transactionId);
+        // Archived transactions are no longer in the table; the archive is only searched on a miss
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .or(() -> archive.find(transactionId).map(ArchivedTransaction::transaction))
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
         return mapToResponse(transaction);
     }
 
+    public Optional<Transaction> findByIdempotencyKey(String fromAccount, String idempotencyKey) {
+        return transactionRepository.findByFromAccountAndIdempotencyKey(fromAccount, idempotencyKey);
+    }
+
+    // Only the newest MAX_PAGE_SIZE; the paged and export variants cover the full history
     public List<TransactionResponse> getTransactionsByAccount(String accountNumber) {
         log.info("Fetching transactions for account: {}", accountNumber);
-        List<Transaction> fromTransactions = transactionRepository.findByFromAccount(accountNumber);
-        List<Transaction> toTransactions = transactionRepository.findByToAccount(accountNumber);
+        return accountHistory(accountNumber, null, MAX_PAGE_SIZE).stream()
+                .map(TransactionService::mapToResponse)
+                .collect(Collectors.toList());
+    }
 
-        // Combine both lists
-        fromTransactions.addAll(toTransactions);
+    public TransactionPage getTransactionPageByAccount(String accountNumber, String cursor, int size) {
+        log.info("Fetching transaction page for account: {}", accountNumber);
+        int pageSize = clampPageSize(size);
 
-        return fromTransactions.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        // Fetch one extra row to know whether there is a next page
+        PageCursor position = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+        return toPage(accountHistory(accountNumber, position, pageSize + 1), pageSize);
+    }
+
+    // Each side returns at most limit rows in order, so merging them and stopping at limit is exact
+    private List<Transaction> accountHistory(String accountNumber, PageCursor position, int limit) {
+        List<Transaction> sent = position == null
+                ? transactionRepository.findSentByAccount(accountNumber, Limit.of(limit))
+                : transactionRepository.findSentByAccountBefore(
+                        accountNumber, position.createdAt(), position.id(), Limit.of(limit));
+        List<Transaction> received = position == null
+                ? transactionRepository.findReceivedByAccount(accountNumber, Limit.of(limit))
+                : transactionRepository.findReceivedByAccountBefore(
+                        accountNumber, position.createdAt(), position.id(), Limit.of(limit));
+
+        List<Transaction> rows = new ArrayList<>(Math.min(limit, sent.size() + received.size()));
+        Iterator<Transaction> merged = newestFirst(sent.iterator(), received.iterator());
+        while (rows.size() < limit && merged.hasNext()) {
+            rows.add(merged.next());
+        }
+        return rows;
     }
 
+    // Merges two newest-first sequences into one
+    private static Iterator<Transaction> newestFirst(Iterator<Transaction> left, Iterator<Transaction> right) {
+        return new Iterator<>() {
+            private Transaction nextLeft = left.hasNext() ? left.next() : null;
+            private Transaction nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction result;
+                if (nextRight == null || (nextLeft != null && NEWEST_FIRST.compare(nextLeft, nextRight) <= 0)) {
+                    result = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    result = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    public TransactionPage getTransactionPage(String cursor, int size) {
+        log.info("Fetching transaction page");
+        int pageSize = clampPageSize(size);
+
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findLatest(Limit.of(pageSize + 1));
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            rows = transactionRepository.findBefore(position.createdAt(), position.id(), Limit.of(pageSize + 1));
+        }
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Writes the account's full history as newline-delimited JSON, merged from the sent and received cursors.
+     * Rows are detached as soon as they are written, so memory stays flat regardless of history size.
+     */
+    @Transactional(readOnly = true)
+    public void exportTransactionsByAccount(String accountNumber, OutputStream outputStream) throws IOException {
+        log.info("Exporting transactions for account: {}", accountNumber);
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        long count = 0;
+
+        try (Stream<Transaction> sent = transactionRepository.streamSentByAccount(accountNumber);
+             Stream<Transaction> received = transactionRepository.streamReceivedByAccount(accountNumber);
+             SequenceWriter writer = objectMapper.writerFor(TransactionResponse.class)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<Transaction> iterator = newestFirst(sent.iterator(), received.iterator());
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.write(mapToResponse(transaction));
+                entityManager.detach(transaction);
+                count++;
+            }
+            if (count > 0) {
+                writer.flush();
+                out.write('\n');
+            }
+        }
+        log.info("Exported {} transactions for account: {}", count, accountNumber);
+    }
+
+    // Only the newest MAX_PAGE_SIZE; GET /transactions/page walks the rest
     public List<TransactionResponse> getAllTransactions() {
-        log.info("Fetching all transactions");
-        return transactionRepository.findAll().stream()
-                .map(this::mapToResponse)
+        log.info("Fetching latest transactions");
+        return transactionRepository.findLatest(Limit.of(MAX_PAGE_SIZE)).stream()
+                .map(TransactionService::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     public List<TransactionEvent> getTransactionEvents(String transactionId) {
         log.info("Fetching transaction events for: {}", transactionId);
-        return transactionEventRepository.findByTransactionIdOrderByVersionAsc(transactionId);
+        List<TransactionEvent> events = eventStore.readStream(transactionId);
+        if (!events.isEmpty()) {
+            return events;
+        }
+        return archive.find(transactionId)
+                .map(archived -> eventStore.expand(archived.events()))
+                .orElse(events);
     }
 
     // Helper methods
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private TransactionPage toPage(List<Transaction> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return TransactionPage.builder()
+                .items(page.stream().map(TransactionService::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     private void validateTransactionRequest(TransactionRequest request) {
         if (request.getType() == Transaction.TransactionType.TRANSFER &&
                 (request.getToAccount() == null || request.getToAccount().isBlank())) {
@@ -188,30 +771,43 @@ public class TransactionService {
         }
     }
 
-    private void saveTransactionEvent(String transactionId, String eventType, Transaction transaction) {
+    private List<String> validateBatchItem(TransactionRequest item) {
+        List<String> errors = new ArrayList<>();
+        if (item == null) {
+            errors.add("Transaction is required");
+            return errors;
+        }
+        for (ConstraintViolation<TransactionRequest> violation : validator.validate(item)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
         try {
-            String eventData = objectMapper.writeValueAsString(transaction);
-
-            // Get current version (count of existing events + 1)
-            long version = transactionEventRepository.findByTransactionIdOrderByVersionAsc(transactionId).size() + 1;
-
-            TransactionEvent event = TransactionEvent.builder()
-                    .transactionId(transactionId)
-                    .eventType(eventType)
-                    .eventData(eventData)
-                    .version(version)
-                    .build();
-
-            transactionEventRepository.save(event);
-            log.debug("Transaction event saved: {} - {}", transactionId, eventType);
-
-        } catch (JsonProcessingException e) {
-            log.error("Error saving transaction event", e);
+            validateTransactionRequest(item);
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
         }
+        return errors;
+    }
+
+    private Transaction buildTransaction(TransactionRequest request, String transactionId, String batchId) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .fromAccount(request.getFromAccount())
+                .toAccount(request.getToAccount())
+                .type(request.getType())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .status(Transaction.TransactionStatus.PENDING)
+                .description(request.getDescription())
+                .batchId(batchId)
+                .build();
     }
 
     private void publishTransactionCreatedEvent(Transaction transaction) {
-        TransactionCreatedEvent event = TransactionCreatedEvent.builder()
+        eventProducer.publishTransactionCreated(buildTransactionCreatedEvent(transaction));
+    }
+
+    static TransactionCreatedEvent buildTransactionCreatedEvent(Transaction transaction) {
+        return TransactionCreatedEvent.builder()
                 .transactionId(transaction.getTransactionId())
                 .fromAccount(transaction.getFromAccount())
                 .toAccount(transaction.getToAccount())
@@ -221,8 +817,6 @@ public class TransactionService {
                 .description(transaction.getDescription())
                 .timestamp(LocalDateTime.now())
                 .build();
-
-        eventProducer.publishTransactionCreated(event);
     }
 
     private void publishTransactionCompletedEvent(Transaction transaction) {
@@ -239,7 +833,7 @@ public class TransactionService {
         eventProducer.publishTransactionCompleted(event);
     }
 
-    private TransactionResponse mapToResponse(Transaction transaction) {
+    static TransactionResponse mapToResponse(Transaction transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
                 .transactionId(transaction.getTransactionId())
@@ -248,6 +842,11 @@ public class TransactionService {
                 .type(transaction.getType())
                 .amount(transaction.getAmount())
                 .currency(transaction.getCurrency())
+                .fromRate(transaction.getFromRate())
+                .fromAccountAmount(transaction.getFromAccountAmount())
+                .toRate(transaction.getToRate())
+                .toAccountAmount(transaction.getToAccountAmount())
+                .fxRateVersion(transaction.getFxRateVersion())
                 .status(transaction.getStatus())
                 .description(transaction.getDescription())
                 .failureReason(transaction.getFailureReason())
@@ -255,4 +854,25 @@ public class TransactionService {
                 .completedAt(transaction.getCompletedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    // Opaque keyset cursor: base64url of "<createdAt>|<id>"
+    private record PageCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new PageCursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+            }
+        }
+    }
+}
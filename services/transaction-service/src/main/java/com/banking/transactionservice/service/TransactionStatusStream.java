@@ -0,0 +1,176 @@
+package com.banking.transactionservice.service;
+
+import com.banking.transactionservice.dto.TransactionResponse;
+import com.banking.transactionservice.exception.SubscriptionLimitExceededException;
+import com.banking.transactionservice.model.Transaction;
+import com.banking.transactionservice.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes transaction status changes to clients as server-sent events, so they needn't poll.
+ * Subscribers are parked {@link SseEmitter}s (async servlet requests) indexed by transaction id:
+ * an idle subscriber costs a map entry and an open connection, not a thread. Changes are published
+ * once the DB transaction that made them commits, from the committed state, and written out by a
+ * small fan-out pool so processing threads never block on a client socket.
+ *
+ * A subscriber gets the current state first, then every later change made by this instance; the
+ * stream ends after a terminal status, or after {@code timeout}. EventSource clients reconnect on
+ * their own and get the current state again, which also covers a transaction processed by another
+ * instance.
+ */
+@Component
+@Slf4j
+public class TransactionStatusStream {
+
+    private final TransactionRepository transactionRepository;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService fanout;
+
+    public TransactionStatusStream(TransactionRepository transactionRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${transaction.status-stream.timeout:PT60S}") Duration timeout,
+                                   @Value("${transaction.status-stream.max-subscribers:50000}") int maxSubscribers,
+                                   @Value("${transaction.status-stream.fanout-threads:2}") int fanoutThreads) {
+        this.transactionRepository = transactionRepository;
+        this.timeoutMs = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fanout = Executors.newFixedThreadPool(Math.max(1, fanoutThreads), runnable -> {
+            Thread thread = new Thread(runnable, "txn-status-fanout-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("transaction.status.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open transaction status streams")
+                .register(meterRegistry);
+    }
+
+    // Empty if there is no such transaction
+    public Optional<SseEmitter> subscribe(String transactionId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriptionLimitExceededException("Too many open status streams, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(transactionId, emitter);
+        // Registered before the current state is read, so a change committed in between is still delivered
+        subscribers.compute(transactionId, (id, listening) -> {
+            Set<Subscriber> updated = listening != null ? listening : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.remove());
+
+        Transaction current = transactionRepository.findByTransactionId(transactionId).orElse(null);
+        if (current == null) {
+            subscriber.remove();
+            return Optional.empty();
+        }
+        subscriber.send(TransactionService.mapToResponse(current), current.getEventVersion());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Publishes the transaction's state once the surrounding DB transaction commits; several
+     * changes within one DB transaction reach subscribers as the final committed state.
+     */
+    public void publishOnCommit(Transaction transaction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(transaction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(transaction);
+            }
+        });
+    }
+
+    private void publish(Transaction transaction) {
+        Set<Subscriber> listening = subscribers.get(transaction.getTransactionId());
+        if (listening == null) {
+            return;
+        }
+        TransactionResponse response = TransactionService.mapToResponse(transaction);
+        long version = transaction.getEventVersion();
+        fanout.execute(() -> listening.forEach(subscriber -> subscriber.send(response, version)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdownNow();
+        subscribers.values().forEach(listening -> listening.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private final class Subscriber {
+
+        private final String transactionId;
+        private final SseEmitter emitter;
+        private long lastVersion = -1;
+        private boolean removed;
+
+        Subscriber(String transactionId, SseEmitter emitter) {
+            this.transactionId = transactionId;
+            this.emitter = emitter;
+        }
+
+        // Versions only move forward: the initial read and a published change can arrive in either order
+        synchronized void send(TransactionResponse response, long version) {
+            if (removed || version <= lastVersion) {
+                return;
+            }
+            lastVersion = version;
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(version))
+                        .name("status")
+                        .data(response, MediaType.APPLICATION_JSON));
+                if (TransactionService.isTerminal(response.getStatus())) {
+                    emitter.complete();
+                    remove();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Status stream for {} closed: {}", transactionId, e.getMessage());
+                remove();
+            }
+        }
+
+        synchronized void remove() {
+            if (removed) {
+                return;
+            }
+            removed = true;
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(transactionId, (id, listening) -> {
+                listening.remove(this);
+                return listening.isEmpty() ? null : listening;
+            });
+        }
+    }
+}
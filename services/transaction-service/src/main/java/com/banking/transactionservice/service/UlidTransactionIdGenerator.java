@@ -0,0 +1,70 @@
+package com.banking.transactionservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ULID-style identifiers: 128 bits rendered as 26 Crockford base32 characters, laid out as a
+ * 48-bit millisecond timestamp, a 16-bit node id and a 64-bit per-node sequence. IDs sort by
+ * creation time, so inserts land at the right edge of the transactionId index instead of at
+ * random pages.
+ *
+ * The sequence is seeded once from SecureRandom and then advanced with a single atomic
+ * increment, so generation takes no locks and no entropy per call. (node, sequence) is unique
+ * for the life of the process; the random seed makes collisions across restarts negligible.
+ */
+@Slf4j
+public class UlidTransactionIdGenerator implements TransactionIdGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 26;
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+
+    private final long nodeId;
+    private final AtomicLong sequence;
+
+    public UlidTransactionIdGenerator(int configuredNodeId) {
+        this.nodeId = (configuredNodeId >= 0 ? configuredNodeId : deriveNodeId()) & 0xFFFF;
+        this.sequence = new AtomicLong(new SecureRandom().nextLong());
+        log.info("ULID transaction ids using node id {}", nodeId);
+    }
+
+    @Override
+    public String nextId() {
+        long high = ((System.currentTimeMillis() & TIMESTAMP_MASK) << 16) | nodeId;
+        long low = sequence.getAndIncrement();
+        return encode(high, low);
+    }
+
+    static String encode(long high, long low) {
+        char[] chars = new char[LENGTH];
+        // 26 five-bit groups cover 130 bits; the first character only carries the top 3
+        for (int i = 0; i < LENGTH; i++) {
+            int shift = (LENGTH - 1 - i) * 5;
+            long bits;
+            if (shift >= 64) {
+                bits = high >>> (shift - 64);
+            } else if (shift > 59) {
+                bits = (low >>> shift) | (high << (64 - shift));
+            } else {
+                bits = low >>> shift;
+            }
+            chars[i] = ALPHABET[(int) (bits & 31)];
+        }
+        return new String(chars);
+    }
+
+    private static int deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host.hashCode() * 31 + Long.hashCode(ProcessHandle.current().pid());
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.transactionservice.service;
+
+import java.util.UUID;
+
+// Random v4 UUIDs, the original scheme; kept for deployments that depend on the format
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -1,4 +1,4 @@
-package com.banking.transactionservice.event;
+package com.banking.common.event;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -0,0 +1,84 @@
+package com.banking.common.event.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+final class BinaryEventReader {
+
+    private final byte[] data;
+    private int position;
+
+    BinaryEventReader(byte[] data, int offset) {
+        this.data = data;
+        this.position = offset;
+    }
+
+    int readByte() {
+        checkAvailable(1);
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in event payload");
+    }
+
+    long readZigZag() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String readString() {
+        int length = (int) readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        checkAvailable(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    BigDecimal readDecimal() {
+        int kind = readByte();
+        if (kind == BinaryTransactionEventCodec.DECIMAL_NULL) {
+            return null;
+        }
+        int scale = (int) readZigZag();
+        if (kind == BinaryTransactionEventCodec.DECIMAL_LONG) {
+            return BigDecimal.valueOf(readZigZag(), scale);
+        }
+        int length = (int) readVarLong();
+        checkAvailable(length);
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(data, position, position + length));
+        position += length;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    LocalDateTime readTimestamp() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long epochSecond = readZigZag();
+        int nanos = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    private void checkAvailable(int length) {
+        if (length < 0 || position + length > data.length) {
+            throw new IllegalArgumentException("Truncated event payload");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.banking.common.event.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable write buffer, one per thread. The only allocation per encoded event is the final
+ * {@link #toByteArray()} copy (plus non-ASCII strings and very large amounts).
+ */
+final class BinaryEventWriter {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<BinaryEventWriter> POOL = ThreadLocal.withInitial(BinaryEventWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+
+    static BinaryEventWriter acquire() {
+        BinaryEventWriter writer = POOL.get();
+        writer.position = 0;
+        return writer;
+    }
+
+    byte[] toByteArray() {
+        byte[] result = Arrays.copyOf(buffer, position);
+        // Don't let one oversized event pin a large buffer to the thread forever
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        return result;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    // Length is written +1 so that 0 can mean null
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int length = value.length();
+        if (isAscii(value)) {
+            writeVarLong(length + 1L);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+    }
+
+    void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(BinaryTransactionEventCodec.DECIMAL_NULL);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            writeByte(BinaryTransactionEventCodec.DECIMAL_LONG);
+            writeZigZag(value.scale());
+            writeZigZag(unscaled.longValue());
+        } else {
+            writeByte(BinaryTransactionEventCodec.DECIMAL_BIG);
+            writeZigZag(value.scale());
+            byte[] bytes = unscaled.toByteArray();
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+    }
+
+    void writeTimestamp(LocalDateTime value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(value.getNano());
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.common.event.codec;
+
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+
+/**
+ * Compact binary layout for transaction events.
+ *
+ * <pre>
+ * magic(1) schemaVersion(1) eventType(1) fields...
+ * </pre>
+ *
+ * Strings are varint length+1 (0 = null) followed by UTF-8, amounts are zigzag scale plus
+ * zigzag unscaled value, timestamps are zigzag epoch seconds plus varint nanos. New fields are
+ * only ever appended and gated on the schema version, so older payloads keep decoding.
+ */
+final class BinaryTransactionEventCodec {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final int SCHEMA_VERSION = 1;
+
+    static final int TYPE_CREATED = 1;
+    static final int TYPE_COMPLETED = 2;
+
+    static final int DECIMAL_NULL = 0;
+    static final int DECIMAL_LONG = 1;
+    static final int DECIMAL_BIG = 2;
+
+    private BinaryTransactionEventCodec() {
+    }
+
+    static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC;
+    }
+
+    static byte[] encode(Object event) {
+        BinaryEventWriter writer = BinaryEventWriter.acquire();
+        writer.writeByte(MAGIC);
+        writer.writeByte(SCHEMA_VERSION);
+
+        if (event instanceof TransactionCreatedEvent created) {
+            writer.writeByte(TYPE_CREATED);
+            writer.writeString(created.getTransactionId());
+            writer.writeString(created.getFromAccount());
+            writer.writeString(created.getToAccount());
+            writer.writeString(created.getType());
+            writer.writeDecimal(created.getAmount());
+            writer.writeString(created.getCurrency());
+            writer.writeString(created.getDescription());
+            writer.writeTimestamp(created.getTimestamp());
+        } else if (event instanceof TransactionCompletedEvent completed) {
+            writer.writeByte(TYPE_COMPLETED);
+            writer.writeString(completed.getTransactionId());
+            writer.writeString(completed.getFromAccount());
+            writer.writeString(completed.getToAccount());
+            writer.writeString(completed.getType());
+            writer.writeDecimal(completed.getAmount());
+            writer.writeString(completed.getStatus());
+            writer.writeTimestamp(completed.getTimestamp());
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+
+        return writer.toByteArray();
+    }
+
+    static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary transaction event");
+        }
+        BinaryEventReader reader = new BinaryEventReader(data, 1);
+        int schemaVersion = reader.readByte();
+        if (schemaVersion > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported event schema version: " + schemaVersion);
+        }
+
+        int eventType = reader.readByte();
+        return switch (eventType) {
+            case TYPE_CREATED -> TransactionCreatedEvent.builder()
+                    .transactionId(reader.readString())
+                    .fromAccount(reader.readString())
+                    .toAccount(reader.readString())
+                    .type(reader.readString())
+                    .amount(reader.readDecimal())
+                    .currency(reader.readString())
+                    .description(reader.readString())
+                    .timestamp(reader.readTimestamp())
+                    .build();
+            case TYPE_COMPLETED -> TransactionCompletedEvent.builder()
+                    .transactionId(reader.readString())
+                    .fromAccount(reader.readString())
+                    .toAccount(reader.readString())
+                    .type(reader.readString())
+                    .amount(reader.readDecimal())
+                    .status(reader.readString())
+                    .timestamp(reader.readTimestamp())
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown binary event type: " + eventType);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.banking.common.event.codec;
+
+public enum EventFormat {
+
+    BINARY("application/vnd.banking.event+binary"),
+    JSON("application/json");
+
+    private final String contentType;
+
+    EventFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static EventFormat fromContentType(String contentType) {
+        for (EventFormat format : values()) {
+            if (format.contentType.equals(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event content type: " + contentType);
+    }
+}
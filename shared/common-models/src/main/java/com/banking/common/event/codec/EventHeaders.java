@@ -0,0 +1,13 @@
+package com.banking.common.event.codec;
+
+/**
+ * Kafka record headers attached to every transaction event.
+ */
+public final class EventHeaders {
+
+    public static final String EVENT_TYPE = "event-type";
+    public static final String CONTENT_TYPE = "content-type";
+
+    private EventHeaders() {
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.common.event.codec;
+
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes and decodes transaction events in either the binary format or the JSON fallback.
+ * Decoding sniffs the payload, so consumers accept both formats regardless of what the
+ * producer is configured to write. Instances are thread-safe.
+ */
+public class TransactionEventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public TransactionEventCodec() {
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public byte[] encode(Object event, EventFormat format) {
+        if (format == EventFormat.BINARY) {
+            return BinaryTransactionEventCodec.encode(event);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    public EventFormat detectFormat(byte[] data) {
+        return BinaryTransactionEventCodec.isBinary(data) ? EventFormat.BINARY : EventFormat.JSON;
+    }
+
+    /**
+     * Decodes a payload. Binary payloads are self-describing; JSON payloads are bound to
+     * {@code jsonType}, which is ignored for binary input.
+     */
+    public <T> T decode(byte[] data, Class<T> jsonType) {
+        if (BinaryTransactionEventCodec.isBinary(data)) {
+            Object event = BinaryTransactionEventCodec.decode(data);
+            if (!jsonType.isInstance(event)) {
+                throw new IllegalArgumentException("Expected " + jsonType.getSimpleName()
+                        + " but payload contains " + event.getClass().getSimpleName());
+            }
+            return jsonType.cast(event);
+        }
+        try {
+            return objectMapper.readValue(data, jsonType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode JSON " + jsonType.getSimpleName(), e);
+        }
+    }
+
+    public static Class<?> eventClass(String eventType) {
+        return switch (eventType) {
+            case "TransactionCreatedEvent" -> TransactionCreatedEvent.class;
+            case "TransactionCompletedEvent" -> TransactionCompletedEvent.class;
+            default -> throw new IllegalArgumentException("Unknown event type: " + eventType);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.banking.common.event.kafka;
+
+import com.banking.common.event.TransactionCompletedEvent;
+import com.banking.common.event.TransactionCreatedEvent;
+import com.banking.common.event.codec.EventHeaders;
+import com.banking.common.event.codec.TransactionEventCodec;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka value deserializer for transaction events. Binary payloads describe their own type;
+ * JSON payloads use the {@code event-type} header, falling back to the topic name for records
+ * written before the header existed.
+ */
+public class TransactionEventDeserializer implements Deserializer<Object> {
+
+    private final TransactionEventCodec codec = new TransactionEventCodec();
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return codec.decode(data, resolveType(topic, headers));
+    }
+
+    private Class<?> resolveType(String topic, Headers headers) {
+        Header eventType = headers != null ? headers.lastHeader(EventHeaders.EVENT_TYPE) : null;
+        if (eventType != null) {
+            return TransactionEventCodec.eventClass(new String(eventType.value(), StandardCharsets.UTF_8));
+        }
+        if (topic.contains("completed")) {
+            return TransactionCompletedEvent.class;
+        }
+        if (topic.contains("created")) {
+            return TransactionCreatedEvent.class;
+        }
+        // Binary payloads don't need the type, and decode() ignores it for them
+        return Object.class;
+    }
+}